@@ -0,0 +1,62 @@
+package me.jamino.wynnWanderer.features;
+
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Significance and style resolution as done when a title is shown: by territory ID for
+ * resolved territories, and by name for callers that only have the friendly name.
+ * Queries mix the cities of the bundled significant territory registry with ordinary territories.
+ */
+@State(Scope.Thread)
+public class StyleResolutionBenchmark {
+    private static final String REGISTRY = "/assets/wynn-wanderer/significant_territories.json";
+    private static final int QUERY_COUNT = 1024;
+
+    private int[] queryIds;
+    private String[] queryNames;
+    private int cursor = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        String registry;
+        try (InputStream stream = StyleResolutionBenchmark.class.getResourceAsStream(REGISTRY)) {
+            if (stream == null) throw new IOException("Missing " + REGISTRY);
+            registry = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        SignificantTerritoryManager.load(new StringReader(registry));
+        String[] cities = JsonParser.parseString(registry).getAsJsonObject()
+                .getAsJsonObject("territories").keySet().toArray(new String[0]);
+
+        queryIds = new int[QUERY_COUNT];
+        queryNames = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            String name = i % 4 == 0 ? cities[i % cities.length] : "Territory " + i;
+            queryNames[i] = name;
+            queryIds[i] = TerritoryIds.intern(name);
+        }
+    }
+
+    @Benchmark
+    public TerritoryStyle styleById() {
+        return SignificantTerritoryManager.getStyle(queryIds[cursor++ & (QUERY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public boolean significantById() {
+        return SignificantTerritoryManager.isSignificant(queryIds[cursor++ & (QUERY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public boolean significantByName() {
+        return SignificantTerritoryManager.isSignificant(queryNames[cursor++ & (QUERY_COUNT - 1)]);
+    }
+}
@@ -0,0 +1,69 @@
+package me.jamino.wynnWanderer.features;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Look-ahead ray queries against the border spatial hash, over the same synthetic maps as
+ * {@link TerritoryLookupBenchmark}. Rays have random headings and a 40 tick horizon at sprinting speed.
+ */
+@State(Scope.Thread)
+public class TerritoryBorderBenchmark {
+    private static final int QUERY_COUNT = 4096;
+    private static final double SPRINT_SPEED = 0.28;
+    private static final int HORIZON_TICKS = 40;
+
+    @Param({"100", "1000", "10000"})
+    public int territoryCount;
+
+    private TerritoryBorderIndex borders;
+    private final TerritoryBorderIndex.Hit hit = new TerritoryBorderIndex.Hit();
+    private double[] queryX;
+    private double[] queryZ;
+    private double[] directionX;
+    private double[] directionZ;
+    private int cursor = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int columns = (int) Math.ceil(Math.sqrt(territoryCount));
+        int cell = 256;
+
+        TerritoryIndex.Builder<TerritoryArea> builder = new TerritoryIndex.Builder<>();
+        for (int i = 0; i < territoryCount; i++) {
+            int x = (i % columns) * cell - 2000 + random.nextInt(32);
+            int z = (i / columns) * cell - 6000 + random.nextInt(32);
+            int width = 120 + random.nextInt(100);
+            int depth = 120 + random.nextInt(100);
+            TerritoryArea area = new TerritoryArea("Territory " + i, x, z, x + width, z + depth);
+            builder.add(area.minX(), area.minZ(), area.maxX(), area.maxZ(), area);
+        }
+        borders = TerritoryBorderIndex.of(builder.build());
+
+        int extent = columns * cell;
+        queryX = new double[QUERY_COUNT];
+        queryZ = new double[QUERY_COUNT];
+        directionX = new double[QUERY_COUNT];
+        directionZ = new double[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryX[i] = -2000 + random.nextDouble() * extent;
+            queryZ[i] = -6000 + random.nextDouble() * extent;
+            double heading = random.nextDouble() * Math.PI * 2;
+            directionX[i] = Math.cos(heading);
+            directionZ[i] = Math.sin(heading);
+        }
+    }
+
+    @Benchmark
+    public int raycast() {
+        int i = cursor++ & (QUERY_COUNT - 1);
+        borders.raycast(queryX[i], queryZ[i], directionX[i], directionZ[i], SPRINT_SPEED * HORIZON_TICKS, hit);
+        return hit.position();
+    }
+}
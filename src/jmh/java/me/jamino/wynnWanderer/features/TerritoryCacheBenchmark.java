@@ -0,0 +1,69 @@
+package me.jamino.wynnWanderer.features;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Cost of recording and checking recently shown territories at different cache sizes.
+ * Territory IDs are drawn from four times the cache size, so lookups hit and miss and
+ * the cache keeps evicting.
+ */
+@State(Scope.Thread)
+public class TerritoryCacheBenchmark {
+    @Param({"16", "64", "256", "1024"})
+    public int cacheSize;
+
+    private TerritoryCache cache;
+    private int[] ids;
+    private int cursor = 0;
+
+    @Setup
+    public void setup() {
+        cache = new TerritoryCache(cacheSize);
+        cache.setDefaultCooldown(80);
+
+        // IDs are powers-of-two sized so the cursor can wrap with a mask
+        Random random = new Random(42);
+        ids = new int[Integer.highestOneBit(cacheSize * 4)];
+        for (int i = 0; i < ids.length; i++) {
+            TerritoryArea area = new TerritoryArea("Benchmark Territory " + random.nextInt(cacheSize * 4), 0, 0, 1, 1);
+            TerritoryIds.update(area);
+            ids[i] = area.id();
+        }
+        for (int i = 0; i < cacheSize; i++) {
+            cache.add(ids[i]);
+        }
+    }
+
+    private int nextId() {
+        return ids[cursor++ & (ids.length - 1)];
+    }
+
+    @Benchmark
+    public boolean checkAndAdd() {
+        int id = nextId();
+        boolean coolingDown = cache.isCoolingDown(id);
+        if (!coolingDown) {
+            cache.add(id);
+        }
+        cache.tick();
+        return coolingDown;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return cache.contains(nextId());
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean matchesAnyArea() {
+        int id = nextId();
+        return cache.matchesAnyArea(area -> area.id() == id);
+    }
+}
@@ -0,0 +1,86 @@
+package me.jamino.wynnWanderer.features;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Point lookups over synthetic territory maps, comparing the grid index against
+ * a linear scan of every territory's bounds.
+ *
+ * <p>Maps are a jittered grid of rectangles with gaps between them, roughly the shape of the
+ * Wynncraft map, so some queries land outside every territory.</p>
+ */
+@State(Scope.Thread)
+public class TerritoryLookupBenchmark {
+    private static final int QUERY_COUNT = 4096;
+
+    @Param({"100", "1000", "10000"})
+    public int territoryCount;
+
+    private TerritoryIndex<TerritoryArea> index;
+    private int[] minX;
+    private int[] minZ;
+    private int[] maxX;
+    private int[] maxZ;
+    private double[] queryX;
+    private double[] queryZ;
+    private int cursor = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int columns = (int) Math.ceil(Math.sqrt(territoryCount));
+        int cell = 256;
+
+        TerritoryIndex.Builder<TerritoryArea> builder = new TerritoryIndex.Builder<>();
+        minX = new int[territoryCount];
+        minZ = new int[territoryCount];
+        maxX = new int[territoryCount];
+        maxZ = new int[territoryCount];
+        for (int i = 0; i < territoryCount; i++) {
+            int x = (i % columns) * cell - 2000 + random.nextInt(32);
+            int z = (i / columns) * cell - 6000 + random.nextInt(32);
+            int width = 120 + random.nextInt(100);
+            int depth = 120 + random.nextInt(100);
+            TerritoryArea area = new TerritoryArea("Territory " + i, x, z, x + width, z + depth);
+            builder.add(area.minX(), area.minZ(), area.maxX(), area.maxZ(), area);
+            minX[i] = area.minX();
+            minZ[i] = area.minZ();
+            maxX[i] = area.maxX();
+            maxZ[i] = area.maxZ();
+        }
+        index = builder.build();
+
+        int extent = columns * cell;
+        queryX = new double[QUERY_COUNT];
+        queryZ = new double[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryX[i] = -2000 + random.nextDouble() * extent;
+            queryZ[i] = -6000 + random.nextDouble() * extent;
+        }
+    }
+
+    @Benchmark
+    public int gridIndex() {
+        int i = cursor++ & (QUERY_COUNT - 1);
+        return index.find(queryX[i], queryZ[i]);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int q = cursor++ & (QUERY_COUNT - 1);
+        double x = queryX[q];
+        double z = queryZ[q];
+        for (int i = 0; i < territoryCount; i++) {
+            if (x >= minX[i] && x <= maxX[i] && z >= minZ[i] && z <= maxZ[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,60 @@
+package me.jamino.wynnWanderer.features;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-frame opacity and entrance math in renderTitle, comparing the baked curve lookup
+ * against evaluating the easing function directly.
+ * Timestamps sweep the whole fade-in, display and fade-out timeline.
+ */
+@State(Scope.Thread)
+public class TitleAnimationBenchmark {
+    private static final long NANOS_PER_TICK = 50_000_000L;
+    private static final int STEPS = 1024;
+
+    @Param({"LINEAR", "EASE_IN_OUT", "CUBIC"})
+    public TitleEasing easing;
+
+    private final TitleAnimation animation = new TitleAnimation();
+    private long[] timestamps;
+    private int cursor = 0;
+
+    @Setup
+    public void setup() {
+        animation.configure(easing, 10, 50, 10);
+        animation.start(0);
+
+        long duration = 70 * NANOS_PER_TICK;
+        timestamps = new long[STEPS];
+        for (int i = 0; i < STEPS; i++) {
+            timestamps[i] = duration * i / STEPS;
+        }
+    }
+
+    @Benchmark
+    public float bakedOpacity() {
+        long now = timestamps[cursor++ & (STEPS - 1)];
+        return animation.opacity(now) * animation.entrance(now);
+    }
+
+    @Benchmark
+    public float directOpacity() {
+        long now = timestamps[cursor++ & (STEPS - 1)];
+        long fadeIn = 10 * NANOS_PER_TICK;
+        long fadeOutStart = 60 * NANOS_PER_TICK;
+        float opacity;
+        if (now < fadeIn) {
+            opacity = easing.apply((float) now / fadeIn);
+        } else if (now < fadeOutStart) {
+            opacity = 1.0F;
+        } else {
+            opacity = easing.apply(1.0F - (float) (now - fadeOutStart) / fadeIn);
+        }
+        float entrance = now < fadeIn ? easing.apply((float) now / fadeIn) : 1.0F;
+        return opacity * entrance;
+    }
+}
@@ -1,10 +1,25 @@
 package me.jamino.wynnWanderer;
 
 import me.jamino.wynnWanderer.config.WynnWandererConfig;
+import me.jamino.wynnWanderer.config.gui.TerritoryStatsGuiProvider;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.features.SignificantTerritoryManager;
+import me.jamino.wynnWanderer.features.SubZoneManager;
 import me.jamino.wynnWanderer.features.TerritoryTitleCore;
+import me.jamino.wynnWanderer.features.TitleSettings;
+import me.jamino.wynnWanderer.journal.VisitJournal;
+import me.jamino.wynnWanderer.metrics.Metrics;
+import me.jamino.wynnWanderer.metrics.MetricsOverlay;
+import me.jamino.wynnWanderer.metrics.StartupTimer;
+import me.jamino.wynnWanderer.replay.MovementTraceRecorder;
+import me.jamino.wynnWanderer.stats.TerritoryStatsCommand;
 import me.shedaniel.autoconfig.AutoConfig;
 import me.shedaniel.autoconfig.serializer.Toml4jConfigSerializer;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.ActionResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +28,43 @@ public class WynnWanderer implements ClientModInitializer {
     private static final Logger LOGGER = LoggerFactory.getLogger("wynn-wanderer");
     private static TerritoryTitleCore territoryTitleCore;
     private static WynnWandererConfig config;
+    private static boolean initialized = false;
 
     @Override
     public void onInitializeClient() {
-        LOGGER.info("Initializing WynnWanderer client");
+        long start = System.nanoTime();
+
+        // Only callbacks are registered here. The config, data files and Wynntils access
+        // are set up on first join, or earlier if the config screen is opened
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> ensureInitialized());
+
+        // Load significant territories with client resources, so they hot-reload with resource packs
+        SignificantTerritoryManager.registerReloadListener(FabricLoader.getInstance().getConfigDir()
+                .resolve("wynn-wanderer").resolve("significant_territories.json"));
+        SubZoneManager.registerReloadListener(FabricLoader.getInstance().getConfigDir()
+                .resolve("wynn-wanderer").resolve("sub_zones.json"));
+
+        ErrorReporter.register();
+        MetricsOverlay.register();
+        MovementTraceRecorder.register(FabricLoader.getInstance().getConfigDir()
+                .resolve("wynn-wanderer").resolve("traces"));
+        VisitJournal.register();
+        TerritoryStatsCommand.register(() -> getTerritoryTitleCore().getTerritoryStats());
+
+        long elapsed = System.nanoTime() - start;
+        StartupTimer.recordEager(elapsed);
+        LOGGER.info("WynnWanderer client registered in {} ms", StartupTimer.formatMillis(elapsed));
+    }
+
+    /**
+     * Loads everything the eager phase left out: the config, the territory tables, the title core
+     * and its saved data. Only the first call does any work. Client thread only.
+     */
+    public static void ensureInitialized() {
+        if (initialized) return;
+        initialized = true;
+
+        long start = System.nanoTime();
 
         // Initialize config
         AutoConfig.register(WynnWandererConfig.class, Toml4jConfigSerializer::new);
@@ -25,56 +73,57 @@ public class WynnWanderer implements ClientModInitializer {
         // Register config save listener
         AutoConfig.getConfigHolder(WynnWandererConfig.class).registerSaveListener((configHolder, newConfig) -> {
             config = newConfig;
+            // Give suspended features another chance with the new config
+            ErrorReporter.reset();
             applyConfigToTerritoryTitleCore();
+            applyJournalConfig();
             return ActionResult.SUCCESS;
         });
 
+        // Compile the tables from the resources loaded at startup, later reloads follow resource packs
+        ResourceManager resourceManager = MinecraftClient.getInstance().getResourceManager();
+        SignificantTerritoryManager.initialize(resourceManager);
+        SubZoneManager.initialize(resourceManager);
+
         // Initialize the territory title core
         territoryTitleCore = new TerritoryTitleCore();
         applyConfigToTerritoryTitleCore();
+        territoryTitleCore.loadTerritorySnapshot(FabricLoader.getInstance().getConfigDir()
+                .resolve("wynn-wanderer").resolve("territories.bin"));
+        territoryTitleCore.loadTerritoryStats(FabricLoader.getInstance().getConfigDir()
+                .resolve("wynn-wanderer").resolve("stats.bin"));
         territoryTitleCore.initialize();
+        TerritoryStatsGuiProvider.register(territoryTitleCore::getTerritoryStats);
+        applyJournalConfig();
+
+        long elapsed = System.nanoTime() - start;
+        StartupTimer.recordDeferred(elapsed);
+        LOGGER.info("WynnWanderer client initialized in {} ms", StartupTimer.formatMillis(elapsed));
+    }
+
+    private static void applyConfigToTerritoryTitleCore() {
+        // Compile the config once and publish it in a single store
+        territoryTitleCore.applySettings(TitleSettings.from(config.territoryTitles));
 
-        LOGGER.info("WynnWanderer client initialized");
+        WynnWandererConfig.TerritoryTitlesConfig.DebugConfig debugConfig = config.territoryTitles.debug;
+        Metrics.setEnabled(debugConfig.collectMetrics || debugConfig.showMetricsOverlay);
+        MetricsOverlay.setOverlayVisible(debugConfig.showMetricsOverlay);
     }
 
-    private void applyConfigToTerritoryTitleCore() {
-        WynnWandererConfig.TerritoryTitlesConfig ttConfig = config.territoryTitles;
-        WynnWandererConfig.TerritoryTitlesConfig.AppearanceConfig appearanceConfig = ttConfig.appearance;
-        WynnWandererConfig.TerritoryTitlesConfig.PositioningConfig positioningConfig = ttConfig.positioning;
-        WynnWandererConfig.TerritoryTitlesConfig.AnimationConfig animationConfig = ttConfig.animation;
-        WynnWandererConfig.TerritoryTitlesConfig.SignificantTerritoryConfig stConfig = ttConfig.significantTerritories;
-
-        territoryTitleCore.updateSettings(
-                ttConfig.enabled,
-                ttConfig.showOnlySignificantTerritories,
-                animationConfig.textFadeInTime,
-                animationConfig.textDisplayTime,
-                animationConfig.textFadeOutTime,
-                animationConfig.textCooldownTime,
-                appearanceConfig.textColor,
-                appearanceConfig.textSize,
-                appearanceConfig.renderShadow,
-                positioningConfig.textXOffset,
-                positioningConfig.textYOffset,
-                positioningConfig.subtitleXOffset,
-                positioningConfig.subtitleYOffset,
-                appearanceConfig.subtitleSize,
-                appearanceConfig.showSubtitles, // Add the new parameter
-                stConfig.useEnhancedStyling,
-                stConfig.titleSizeMultiplier,
-                stConfig.subtitleSizeMultiplier,
-                stConfig.useCustomColors,
-                stConfig.defaultColor,
-                positioningConfig.centerText,
-                animationConfig.recentTerritoryCacheSize
-        );
+    private static void applyJournalConfig() {
+        WynnWandererConfig.TerritoryTitlesConfig.JournalConfig journalConfig = config.territoryTitles.journal;
+        VisitJournal.configure(journalConfig.enabled,
+                FabricLoader.getInstance().getConfigDir().resolve("wynn-wanderer").resolve("journal"),
+                journalConfig.segmentSizeKb * 1024L, Math.max(1, journalConfig.maxSegments));
     }
 
     public static TerritoryTitleCore getTerritoryTitleCore() {
+        ensureInitialized();
         return territoryTitleCore;
     }
 
     public static WynnWandererConfig getConfig() {
+        ensureInitialized();
         return config;
     }
 }
\ No newline at end of file
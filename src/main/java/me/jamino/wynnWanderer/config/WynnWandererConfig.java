@@ -1,15 +1,26 @@
 package me.jamino.wynnWanderer.config;
 
+import me.jamino.wynnWanderer.features.DetectionTrigger;
+import me.jamino.wynnWanderer.features.LookAheadMode;
+import me.jamino.wynnWanderer.features.TitleEasing;
 import me.shedaniel.autoconfig.ConfigData;
 import me.shedaniel.autoconfig.annotation.Config;
 import me.shedaniel.autoconfig.annotation.ConfigEntry;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Config(name = "wynn-wanderer")
 public class WynnWandererConfig implements ConfigData {
     @ConfigEntry.Gui.CollapsibleObject
     @ConfigEntry.Gui.Tooltip
     public TerritoryTitlesConfig territoryTitles = new TerritoryTitlesConfig();
 
+    @Override
+    public void validatePostLoad() {
+        territoryTitles.animation.migrate();
+    }
+
     public static class TerritoryTitlesConfig {
         @ConfigEntry.Gui.Tooltip
         public boolean enabled = true;
@@ -29,10 +40,30 @@ public class WynnWandererConfig implements ConfigData {
         @ConfigEntry.Gui.Tooltip
         public AnimationConfig animation = new AnimationConfig();
 
+        @ConfigEntry.Gui.CollapsibleObject
+        @ConfigEntry.Gui.Tooltip
+        public DetectionConfig detection = new DetectionConfig();
+
         @ConfigEntry.Gui.CollapsibleObject
         @ConfigEntry.Gui.Tooltip
         public SignificantTerritoryConfig significantTerritories = new SignificantTerritoryConfig();
 
+        @ConfigEntry.Gui.CollapsibleObject
+        @ConfigEntry.Gui.Tooltip
+        public SubZoneConfig subZones = new SubZoneConfig();
+
+        @ConfigEntry.Gui.CollapsibleObject
+        @ConfigEntry.Gui.Tooltip
+        public StatsConfig stats = new StatsConfig();
+
+        @ConfigEntry.Gui.CollapsibleObject
+        @ConfigEntry.Gui.Tooltip
+        public JournalConfig journal = new JournalConfig();
+
+        @ConfigEntry.Gui.CollapsibleObject
+        @ConfigEntry.Gui.Tooltip
+        public DebugConfig debug = new DebugConfig();
+
         public static class AppearanceConfig {
             @ConfigEntry.Gui.Tooltip
             public String textColor = "ffffff";
@@ -43,6 +74,9 @@ public class WynnWandererConfig implements ConfigData {
             @ConfigEntry.Gui.Tooltip
             public boolean renderShadow = true;
 
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public boolean cacheTitleComposite = true;
+
             @ConfigEntry.Gui.Tooltip
             public double subtitleSize = 1.3;
 
@@ -68,6 +102,10 @@ public class WynnWandererConfig implements ConfigData {
         }
 
         public static class AnimationConfig {
+            // Cooldowns are tracked per territory, so the cache has to hold every territory still cooling down.
+            // Older configs default to 3, which would evict cooldowns almost immediately
+            public static final int MIN_RECENT_TERRITORY_CACHE_SIZE = 16;
+
             @ConfigEntry.Gui.Tooltip(count = 2)
             public int textFadeInTime = 10;
 
@@ -80,8 +118,46 @@ public class WynnWandererConfig implements ConfigData {
             @ConfigEntry.Gui.Tooltip(count = 2)
             public int textCooldownTime = 80;
 
+            @ConfigEntry.Gui.EnumHandler(option = ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON)
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public TitleEasing easing = TitleEasing.LINEAR;
+
+            @ConfigEntry.Gui.Tooltip(count = 3)
+            public int recentTerritoryCacheSize = 64;
+
+            @ConfigEntry.Gui.Tooltip(count = 3)
+            public List<String> territoryCooldowns = new ArrayList<>();
+
+            /**
+             * Raises a cache size saved by an older version to the minimum per-territory cooldowns need.
+             */
+            void migrate() {
+                if (recentTerritoryCacheSize < MIN_RECENT_TERRITORY_CACHE_SIZE) {
+                    recentTerritoryCacheSize = MIN_RECENT_TERRITORY_CACHE_SIZE;
+                }
+            }
+        }
+
+        public static class DetectionConfig {
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public int minCheckInterval = 1;
+
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public int maxCheckInterval = 20;
+
+            @ConfigEntry.Gui.EnumHandler(option = ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON)
+            @ConfigEntry.Gui.Tooltip(count = 3)
+            public DetectionTrigger trigger = DetectionTrigger.POLLING;
+
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public boolean asyncResolution = false;
+
+            @ConfigEntry.Gui.EnumHandler(option = ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON)
             @ConfigEntry.Gui.Tooltip(count = 3)
-            public int recentTerritoryCacheSize = 3;
+            public LookAheadMode lookAhead = LookAheadMode.OFF;
+
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public int lookAheadTicks = 40;
         }
 
         public static class SignificantTerritoryConfig {
@@ -100,5 +176,46 @@ public class WynnWandererConfig implements ConfigData {
             @ConfigEntry.Gui.Tooltip
             public String defaultColor = "ffcc00";
         }
+
+        public static class SubZoneConfig {
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public boolean showTitles = true;
+
+            @ConfigEntry.Gui.Tooltip
+            public double titleSizeMultiplier = 0.8;
+
+            @ConfigEntry.Gui.Tooltip
+            public double subtitleSizeMultiplier = 0.8;
+        }
+
+        public static class StatsConfig {
+            @ConfigEntry.Gui.Tooltip
+            public boolean collectStats = true;
+
+            // Not saved, shows the current top territories in the config screen
+            public transient Summary summary = new Summary();
+
+            public static final class Summary {
+            }
+        }
+
+        public static class JournalConfig {
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public boolean enabled = false;
+
+            @ConfigEntry.Gui.Tooltip
+            public int segmentSizeKb = 1024;
+
+            @ConfigEntry.Gui.Tooltip
+            public int maxSegments = 16;
+        }
+
+        public static class DebugConfig {
+            @ConfigEntry.Gui.Tooltip(count = 2)
+            public boolean collectMetrics = false;
+
+            @ConfigEntry.Gui.Tooltip
+            public boolean showMetricsOverlay = false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package me.jamino.wynnWanderer.config.gui;
+
+import me.jamino.wynnWanderer.config.WynnWandererConfig;
+import me.jamino.wynnWanderer.stats.TerritoryStats;
+import me.jamino.wynnWanderer.stats.TerritoryStatsCommand;
+import me.shedaniel.autoconfig.AutoConfig;
+import me.shedaniel.clothconfig2.api.AbstractConfigListEntry;
+import me.shedaniel.clothconfig2.api.ConfigEntryBuilder;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Fills the statistics summary field of the config screen with the territories the player
+ * spent the most time in. Built each time the screen opens, so it always shows current values.
+ */
+@Environment(EnvType.CLIENT)
+public final class TerritoryStatsGuiProvider {
+    private TerritoryStatsGuiProvider() {
+    }
+
+    /**
+     * Registers the provider with the config screen. Must run after the config is registered.
+     *
+     * @param stats Supplies the stats to show
+     */
+    @SuppressWarnings("rawtypes")
+    public static void register(Supplier<TerritoryStats> stats) {
+        AutoConfig.getGuiRegistry(WynnWandererConfig.class).registerPredicateProvider(
+                (i18n, field, config, defaults, registry) -> {
+                    ConfigEntryBuilder builder = ConfigEntryBuilder.create();
+                    List<AbstractConfigListEntry> entries = new ArrayList<>();
+                    entries.add(builder.startTextDescription(Text.translatable(i18n)).build());
+                    for (Text line : TerritoryStatsCommand.formatTop(stats.get())) {
+                        entries.add(builder.startTextDescription(line).build());
+                    }
+                    return entries;
+                },
+                field -> field.getType() == WynnWandererConfig.TerritoryTitlesConfig.StatsConfig.Summary.class);
+    }
+}
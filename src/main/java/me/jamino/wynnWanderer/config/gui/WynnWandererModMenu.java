@@ -2,6 +2,7 @@ package me.jamino.wynnWanderer.config.gui;
 
 import com.terraformersmc.modmenu.api.ConfigScreenFactory;
 import com.terraformersmc.modmenu.api.ModMenuApi;
+import me.jamino.wynnWanderer.WynnWanderer;
 import me.jamino.wynnWanderer.config.WynnWandererConfig;
 import me.shedaniel.autoconfig.AutoConfig;
 import net.fabricmc.api.EnvType;
@@ -11,6 +12,10 @@ import net.fabricmc.api.Environment;
 public class WynnWandererModMenu implements ModMenuApi {
     @Override
     public ConfigScreenFactory<?> getModConfigScreenFactory() {
-        return parent -> AutoConfig.getConfigScreen(WynnWandererConfig.class, parent).get();
+        return parent -> {
+            // The config is registered on first join, so load it now if the menu is opened before that
+            WynnWanderer.ensureInitialized();
+            return AutoConfig.getConfigScreen(WynnWandererConfig.class, parent).get();
+        };
     }
 }
\ No newline at end of file
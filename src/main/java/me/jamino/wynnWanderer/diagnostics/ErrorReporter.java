@@ -0,0 +1,257 @@
+package me.jamino.wynnWanderer.diagnostics;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limited, aggregated error reporting for code that can fail every tick.
+ *
+ * <p>Errors are deduplicated by feature, exception type and call site. The first occurrence is
+ * logged right away with its stack trace. Repeats are only counted, and a summary with the count
+ * and the latest message is logged at most once per {@link #SUMMARY_INTERVAL_NANOS} per error.</p>
+ *
+ * <p>If a suspendable {@link Feature} reports {@link #SUSPEND_THRESHOLD} errors within
+ * {@link #WINDOW_NANOS}, it is suspended for a while. Callers check {@link #isSuspended} and skip
+ * the feature until it resumes. The suspension doubles each time the feature keeps failing.</p>
+ *
+ * <p>Safe to call from any thread.</p>
+ */
+public final class ErrorReporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger("wynn-wanderer");
+
+    private static final long SUMMARY_INTERVAL_NANOS = 60_000_000_000L;
+    // Distinct errors tracked before new ones share a single overflow entry
+    private static final int MAX_TRACKED_ERRORS = 128;
+
+    private static final int SUSPEND_THRESHOLD = 40;
+    private static final long WINDOW_NANOS = 10_000_000_000L;
+    private static final long BASE_SUSPENSION_NANOS = 30_000_000_000L;
+    private static final long MAX_SUSPENSION_NANOS = 300_000_000_000L;
+    // A feature this long without errors starts over at the base suspension
+    private static final long RECOVERY_NANOS = 600_000_000_000L;
+    // How often pending summaries are flushed from the client tick
+    private static final int FLUSH_TICKS = 100;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final Map<ErrorKey, ErrorCount> ERRORS = new ConcurrentHashMap<>();
+    private static final ErrorKey OVERFLOW_KEY = new ErrorKey(null, "other", Throwable.class);
+    // Filled once below and never modified, so it can be read from any thread
+    private static final Map<Feature, Suspension> SUSPENSIONS = new EnumMap<>(Feature.class);
+
+    static {
+        for (Feature feature : Feature.values()) {
+            SUSPENSIONS.put(feature, new Suspension());
+        }
+    }
+
+    private static int flushCounter = 0;
+
+    private ErrorReporter() {
+    }
+
+    /**
+     * Flushes summaries of errors that stopped repeating, so their final count is not lost.
+     */
+    public static void register() {
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            flushCounter++;
+            if (flushCounter >= FLUSH_TICKS) {
+                flushCounter = 0;
+                flush(System.nanoTime());
+            }
+        });
+    }
+
+    /**
+     * Reports an exception.
+     *
+     * @param feature The feature that failed
+     * @param message What was being done, e.g. "Error checking territory"
+     * @param error   The exception
+     */
+    public static void report(Feature feature, String message, Throwable error) {
+        record(feature, message, error, error.getClass());
+    }
+
+    /**
+     * Reports a problem without an exception, such as an invalid config value.
+     *
+     * @param feature The feature the problem affects
+     * @param message The problem
+     */
+    public static void warn(Feature feature, String message) {
+        record(feature, message, null, null);
+    }
+
+    /**
+     * Checks whether a feature is suspended after repeated errors.
+     *
+     * @param feature The feature
+     * @return true if the feature should be skipped for now
+     */
+    public static boolean isSuspended(Feature feature) {
+        return SUSPENSIONS.get(feature).isActive(System.nanoTime());
+    }
+
+    /**
+     * Lifts every suspension and clears all counts, e.g. after the user changed the config.
+     */
+    public static void reset() {
+        for (Suspension suspension : SUSPENSIONS.values()) {
+            suspension.reset();
+        }
+        ERRORS.clear();
+    }
+
+    private static void record(Feature feature, String message, Throwable error, Class<?> type) {
+        long now = System.nanoTime();
+        String detail = error == null ? message : message + ": " + error;
+
+        ErrorKey key = new ErrorKey(feature, callSite(), type);
+        ErrorCount count = ERRORS.get(key);
+        if (count == null) {
+            if (ERRORS.size() >= MAX_TRACKED_ERRORS) {
+                key = OVERFLOW_KEY;
+                count = ERRORS.computeIfAbsent(key, k -> new ErrorCount(now));
+            } else {
+                ErrorCount created = new ErrorCount(now);
+                count = ERRORS.putIfAbsent(key, created);
+                if (count == null) {
+                    // First occurrence, log it in full
+                    if (error == null) {
+                        LOGGER.warn("[{}] {}", feature.getDisplayName(), message);
+                    } else {
+                        LOGGER.warn("[{}] {}", feature.getDisplayName(), message, error);
+                    }
+                    count = created;
+                    count.lastDetail = detail;
+                    recordForSuspension(feature, now);
+                    return;
+                }
+            }
+        }
+
+        count.pending.incrementAndGet();
+        count.lastDetail = detail;
+        if (now - count.nextSummaryNanos.get() >= 0) {
+            emitSummary(key, count, now);
+        }
+        recordForSuspension(feature, now);
+    }
+
+    private static void recordForSuspension(Feature feature, long now) {
+        if (!feature.isSuspendable()) return;
+
+        long duration = SUSPENSIONS.get(feature).recordError(now);
+        if (duration > 0) {
+            LOGGER.error("[{}] {} errors within {}s, suspending {} for {}s",
+                    feature.getDisplayName(), SUSPEND_THRESHOLD, WINDOW_NANOS / 1_000_000_000L,
+                    feature.getDisplayName(), duration / 1_000_000_000L);
+        }
+    }
+
+    private static void flush(long now) {
+        for (Map.Entry<ErrorKey, ErrorCount> entry : ERRORS.entrySet()) {
+            ErrorCount count = entry.getValue();
+            if (count.pending.get() > 0 && now - count.nextSummaryNanos.get() >= 0) {
+                emitSummary(entry.getKey(), count, now);
+            }
+        }
+    }
+
+    private static void emitSummary(ErrorKey key, ErrorCount count, long now) {
+        long next = count.nextSummaryNanos.get();
+        // Only one thread logs each summary
+        if (!count.nextSummaryNanos.compareAndSet(next, now + SUMMARY_INTERVAL_NANOS)) return;
+
+        long repeats = count.pending.getAndSet(0);
+        if (repeats == 0) return;
+
+        long seconds = Math.max(1, (now - count.lastSummaryNanos) / 1_000_000_000L);
+        count.lastSummaryNanos = now;
+        String feature = key.feature() == null ? "various" : key.feature().getDisplayName();
+        LOGGER.warn("[{}] Repeated {} times in the last {}s at {}, latest: {}",
+                feature, repeats, seconds, key.site(), count.lastDetail);
+    }
+
+    /**
+     * Finds the code that called into the reporter, the call site errors are grouped by.
+     */
+    private static String callSite() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(ErrorReporter.class.getName()))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                + "." + f.getMethodName() + ":" + f.getLineNumber()).orElse("unknown");
+    }
+
+    private record ErrorKey(Feature feature, String site, Class<?> type) {
+    }
+
+    /**
+     * Error window and suspension of one feature. Errors are counted under the lock,
+     * the suspension end is volatile so checking it doesn't need the lock.
+     */
+    private static final class Suspension {
+        private volatile long suspendedUntilNanos = 0;
+        private long windowStartNanos = 0;
+        private int windowErrors = 0;
+        private int strikes = 0;
+        private long lastErrorNanos = 0;
+
+        boolean isActive(long now) {
+            long until = suspendedUntilNanos;
+            return until != 0 && now - until < 0;
+        }
+
+        /**
+         * Counts an error and suspends the feature if it crossed the threshold.
+         *
+         * @return The suspension just started in nanoseconds, or 0 if none was
+         */
+        synchronized long recordError(long now) {
+            if (strikes > 0 && now - lastErrorNanos > RECOVERY_NANOS) {
+                strikes = 0;
+            }
+            lastErrorNanos = now;
+
+            if (now - windowStartNanos > WINDOW_NANOS) {
+                windowStartNanos = now;
+                windowErrors = 0;
+            }
+            windowErrors++;
+            if (windowErrors < SUSPEND_THRESHOLD || isActive(now)) return 0;
+
+            long duration = Math.min(BASE_SUSPENSION_NANOS << Math.min(strikes, 8), MAX_SUSPENSION_NANOS);
+            strikes++;
+            windowErrors = 0;
+            suspendedUntilNanos = now + duration;
+            return duration;
+        }
+
+        synchronized void reset() {
+            suspendedUntilNanos = 0;
+            windowErrors = 0;
+            strikes = 0;
+        }
+    }
+
+    private static final class ErrorCount {
+        final AtomicLong pending = new AtomicLong();
+        final AtomicLong nextSummaryNanos;
+        volatile long lastSummaryNanos;
+        volatile String lastDetail;
+
+        ErrorCount(long now) {
+            nextSummaryNanos = new AtomicLong(now + SUMMARY_INTERVAL_NANOS);
+            lastSummaryNanos = now;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.jamino.wynnWanderer.diagnostics;
+
+/**
+ * Parts of the mod that report errors separately, so one failing part can be suspended
+ * without taking the others down.
+ */
+public enum Feature {
+    /** World state checks, territory lookups and title decisions on the client tick */
+    TERRITORY_DETECTION("territory detection", true),
+    /** Drawing titles and hints on the HUD */
+    TITLE_RENDERING("title rendering", true),
+    /** Listeners registered with TerritoryEvents */
+    TERRITORY_EVENTS("territory events", false),
+    /** Reading and writing snapshot, statistics, journal and trace files */
+    STORAGE("storage", false),
+    /** Invalid values in the config or the significant territory registry */
+    CONFIG("config", false);
+
+    private final String displayName;
+    private final boolean suspendable;
+
+    Feature(String displayName, boolean suspendable) {
+        this.displayName = displayName;
+        this.suspendable = suspendable;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return Whether repeated errors suspend this feature, otherwise they are only reported
+     */
+    public boolean isSuspendable() {
+        return suspendable;
+    }
+}
@@ -0,0 +1,99 @@
+package me.jamino.wynnWanderer.features;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Resolves position samples on a background thread.
+ * The client thread publishes the latest sample and later polls the latest result;
+ * samples published while the worker is busy replace each other, so only the newest is resolved.
+ *
+ * @param <R> The type of the resolved result
+ */
+public class AsyncTerritoryResolver<R> {
+    private final Function<PositionSample, R> resolver;
+    private final AtomicReference<PositionSample> pendingSample = new AtomicReference<>();
+    private final AtomicReference<R> completedResult = new AtomicReference<>();
+    private final AtomicBoolean workerScheduled = new AtomicBoolean(false);
+
+    // Created on first use so the thread only exists when async mode is enabled
+    private ExecutorService executor;
+
+    /**
+     * Constructs a resolver running the given function off-thread.
+     *
+     * @param resolver Function turning a sample into a result, must be thread-safe
+     */
+    public AsyncTerritoryResolver(Function<PositionSample, R> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Publishes a sample for resolution. Called from the client thread.
+     *
+     * @param sample The latest player position
+     */
+    public void submit(PositionSample sample) {
+        pendingSample.set(sample);
+        if (workerScheduled.compareAndSet(false, true)) {
+            getExecutor().execute(this::drainSamples);
+        }
+    }
+
+    /**
+     * Takes the most recent result, if one has completed since the last poll.
+     *
+     * @return The resolved result, or null if none is ready
+     */
+    public R poll() {
+        return completedResult.getAndSet(null);
+    }
+
+    /**
+     * Discards any pending sample and unclaimed result.
+     */
+    public void clear() {
+        pendingSample.set(null);
+        completedResult.set(null);
+    }
+
+    private void drainSamples() {
+        while (true) {
+            PositionSample sample = pendingSample.getAndSet(null);
+            if (sample == null) {
+                workerScheduled.set(false);
+                // A sample may have arrived between the empty read and releasing the flag
+                if (pendingSample.get() == null || !workerScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                R result = resolver.apply(sample);
+                if (result != null) {
+                    completedResult.set(result);
+                }
+            } catch (Exception e) {
+                ErrorReporter.report(Feature.TERRITORY_DETECTION, "Error resolving territory off-thread", e);
+            }
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wynn-wanderer-territory");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
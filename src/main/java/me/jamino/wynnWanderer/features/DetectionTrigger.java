@@ -0,0 +1,13 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * What starts a territory check.
+ */
+public enum DetectionTrigger {
+    /** Checks on a tick timer that adapts to movement and distance to the nearest border */
+    POLLING,
+    /** Checks as soon as the player moves into another block or teleports, nothing runs while standing still */
+    MOVEMENT,
+    /** Both, movement checks plus the tick timer as a fallback */
+    BOTH
+}
@@ -0,0 +1,13 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * What the border look-ahead does with the territory ahead of the player.
+ */
+public enum LookAheadMode {
+    /** No look-ahead, territories are only detected once the player is inside */
+    OFF,
+    /** Prepares the title and checks the territory on the tick the border should be crossed */
+    PRESTAGE,
+    /** Prestages the title and also shows an "Approaching" hint before the border */
+    HINT
+}
@@ -0,0 +1,70 @@
+package me.jamino.wynnWanderer.features;
+
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Receives the local player's position updates from {@code EntityMixin}, covering normal movement,
+ * riding and server teleports alike, and notes when the player reaches another block.
+ *
+ * <p>The hook runs for every entity position update, so while disabled it only reads one field.
+ * Everything is called on the client thread.</p>
+ */
+public final class PlayerMovementTracker {
+    private static boolean enabled = false;
+    private static boolean moved = false;
+    // Block granularity, the same as the detector's containment fast path
+    private static boolean hasBlock = false;
+    private static int blockX;
+    private static int blockZ;
+
+    private PlayerMovementTracker() {
+    }
+
+    /**
+     * @return Whether position updates are being tracked
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops tracking. Any movement from before is forgotten.
+     *
+     * @param enabled Whether to track position updates
+     */
+    public static void setEnabled(boolean enabled) {
+        if (PlayerMovementTracker.enabled == enabled) return;
+
+        PlayerMovementTracker.enabled = enabled;
+        moved = false;
+        hasBlock = false;
+    }
+
+    /**
+     * Called by the mixin after the local player's position was set.
+     *
+     * @param x The new x coordinate
+     * @param z The new z coordinate
+     */
+    public static void onPositionSet(double x, double z) {
+        int newBlockX = MathHelper.floor(x);
+        int newBlockZ = MathHelper.floor(z);
+        if (hasBlock && newBlockX == blockX && newBlockZ == blockZ) return;
+
+        hasBlock = true;
+        blockX = newBlockX;
+        blockZ = newBlockZ;
+        moved = true;
+    }
+
+    /**
+     * Checks whether the player reached another block since the last call, and clears the flag.
+     *
+     * @return true if a territory check should run
+     */
+    public static boolean consumeMoved() {
+        if (!moved) return false;
+        moved = false;
+        return true;
+    }
+}
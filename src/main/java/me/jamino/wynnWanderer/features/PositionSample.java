@@ -0,0 +1,12 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Immutable sample of the player's horizontal position, taken on the client thread.
+ *
+ * @param x      The player's x coordinate
+ * @param z      The player's z coordinate
+ * @param blockX The x coordinate of the block the player is in
+ * @param blockZ The z coordinate of the block the player is in
+ */
+public record PositionSample(double x, double z, int blockX, int blockZ) {
+}
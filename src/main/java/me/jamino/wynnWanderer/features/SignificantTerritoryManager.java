@@ -1,14 +1,212 @@
 package me.jamino.wynnWanderer.features;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of significant territories and their styling.
+ *
+ * <p>Entries are read from {@code assets/wynn-wanderer/significant_territories.json}, which resource
+ * packs can replace, and then from an optional user file in the config directory. On every resource
+ * reload they are compiled into a table indexed by territory ID, so lookups never hash names.</p>
+ */
 public class SignificantTerritoryManager {
-    // List of significant cities for special styling
-    public static final Set<String> SIGNIFICANT_TERRITORIES = new HashSet<>(Arrays.asList(
-            "Llevigar", "Gelibord", "Olux", "Rodoroc", "Eltom", "Cinfras", "Ahmsord",
-            "Kandon-Beda", "Thesead", "Corkus City", "Selchar", "Nemract", "Almuj",
-            "Ragni", "Detlas", "Lutho", "Nesaak", "Troms", "Alekin"
-    ));
-}
\ No newline at end of file
+    private static final Identifier REGISTRY_ID = Identifier.of("wynn-wanderer", "significant_territories.json");
+
+    // Style for each territory ID, null if the territory is not significant
+    private static volatile TerritoryStyle[] stylesById = new TerritoryStyle[0];
+    // Incremented on every compile so caches derived from the registry know to rebuild
+    private static volatile int generation = 0;
+    private static Path userFile = null;
+    // Resource reloads are skipped until the first load, which happens on first join. Client thread only
+    private static boolean initialized = false;
+
+    /**
+     * Registers the registry to be (re)loaded with client resources, so it follows resource packs and F3+T.
+     *
+     * @param userOverrideFile Optional user file whose entries override the bundled ones
+     */
+    public static void registerReloadListener(Path userOverrideFile) {
+        userFile = userOverrideFile;
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+            @Override
+            public Identifier getFabricId() {
+                return Identifier.of("wynn-wanderer", "significant_territories");
+            }
+
+            @Override
+            public void reload(ResourceManager manager) {
+                if (initialized) {
+                    SignificantTerritoryManager.reload(manager);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the registry for the first time and from then on with every resource reload.
+     * Deferred so game startup doesn't pay for parsing it.
+     *
+     * @param manager The resource manager to read the bundled registry from
+     */
+    public static void initialize(ResourceManager manager) {
+        initialized = true;
+        reload(manager);
+    }
+
+    /**
+     * Reloads the registry from resources and the user file, replacing the current table.
+     *
+     * @param manager The resource manager to read the bundled registry from
+     */
+    public static void reload(ResourceManager manager) {
+        Map<String, TerritoryStyle> styles = new LinkedHashMap<>();
+
+        Optional<Resource> resource = manager.getResource(REGISTRY_ID);
+        if (resource.isPresent()) {
+            try (Reader reader = resource.get().getReader()) {
+                readEntries(reader, styles);
+            } catch (IOException | RuntimeException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error reading significant territories from resources", e);
+            }
+        }
+
+        if (userFile != null && Files.isRegularFile(userFile)) {
+            try (Reader reader = Files.newBufferedReader(userFile, StandardCharsets.UTF_8)) {
+                readEntries(reader, styles);
+            } catch (IOException | RuntimeException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error reading significant territories from '" + userFile + "'", e);
+            }
+        }
+
+        compile(styles);
+    }
+
+    /**
+     * Replaces the registry with the entries of a single registry file, without resources.
+     * Used where no client is running, such as the trace replay harness.
+     *
+     * @param reader Reader over a registry file
+     */
+    public static void load(Reader reader) {
+        Map<String, TerritoryStyle> styles = new LinkedHashMap<>();
+        readEntries(reader, styles);
+        compile(styles);
+    }
+
+    /**
+     * Replaces the registry with the given territories and styles.
+     *
+     * @param styles Style for each significant territory, keyed by friendly name
+     */
+    public static void compile(Map<String, TerritoryStyle> styles) {
+        int maxId = -1;
+        int[] ids = new int[styles.size()];
+        int i = 0;
+        for (String name : styles.keySet()) {
+            ids[i] = TerritoryIds.intern(name);
+            maxId = Math.max(maxId, ids[i]);
+            i++;
+        }
+
+        TerritoryStyle[] table = new TerritoryStyle[maxId + 1];
+        i = 0;
+        for (TerritoryStyle style : styles.values()) {
+            table[ids[i++]] = style;
+        }
+        stylesById = table;
+        generation++;
+    }
+
+    /**
+     * Gets a counter that changes every time the registry is replaced.
+     *
+     * @return The registry generation
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Reads a registry file of the form {@code {"territories": {"Name": {...}}}} into the map.
+     * An entry with {@code "significant": false} removes a territory added by an earlier file.
+     */
+    private static void readEntries(Reader reader, Map<String, TerritoryStyle> styles) {
+        JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+        JsonObject territories = root.getAsJsonObject("territories");
+        if (territories == null) return;
+
+        for (Map.Entry<String, JsonElement> entry : territories.entrySet()) {
+            JsonObject properties = entry.getValue().isJsonObject() ? entry.getValue().getAsJsonObject() : new JsonObject();
+            if (properties.has("significant") && !properties.get("significant").getAsBoolean()) {
+                styles.remove(entry.getKey());
+                continue;
+            }
+
+            int color = TerritoryStyle.UNSET_COLOR;
+            if (properties.has("color")) {
+                String colorString = properties.get("color").getAsString();
+                if (colorString.matches("#?[0-9A-Fa-f]{6}")) {
+                    color = TerritoryRenderer.parseColor(colorString);
+                } else {
+                    ErrorReporter.warn(Feature.CONFIG, "Significant territory '" + entry.getKey() + "' has an invalid color '" + colorString + "'. Ignoring...");
+                }
+            }
+
+            styles.put(entry.getKey(), new TerritoryStyle(
+                    color,
+                    properties.has("titleSizeMultiplier") ? properties.get("titleSizeMultiplier").getAsDouble() : 0,
+                    properties.has("subtitleSizeMultiplier") ? properties.get("subtitleSizeMultiplier").getAsDouble() : 0,
+                    properties.has("priority") ? properties.get("priority").getAsInt() : 0));
+        }
+    }
+
+    /**
+     * Gets the style of a territory.
+     *
+     * @param id The territory ID
+     * @return The territory's style, or null if it is not significant
+     */
+    public static TerritoryStyle getStyle(int id) {
+        TerritoryStyle[] table = stylesById;
+        return id >= 0 && id < table.length ? table[id] : null;
+    }
+
+    /**
+     * Checks whether a territory is significant.
+     *
+     * @param id The territory ID
+     * @return true if the territory is significant
+     */
+    public static boolean isSignificant(int id) {
+        return getStyle(id) != null;
+    }
+
+    /**
+     * Checks whether a territory is significant.
+     *
+     * @param name The territory's friendly name
+     * @return true if the territory is significant
+     */
+    public static boolean isSignificant(String name) {
+        return name != null && isSignificant(TerritoryIds.find(name));
+    }
+}
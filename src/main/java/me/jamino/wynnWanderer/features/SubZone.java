@@ -0,0 +1,171 @@
+package me.jamino.wynnWanderer.features;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A named area inside a territory, such as a district, a dungeon entrance or a cave.
+ * Sub-zones can be nested; each one lies within its parent.
+ *
+ * <p>Two sub-zones are equal if they have the same ID, so a zone keeps its identity
+ * when the sub-zone data is reloaded. Zone IDs are dense and separate from territory IDs,
+ * so zones don't take up slots in the tables keyed by territory.</p>
+ */
+public final class SubZone {
+    // Zone paths interned to IDs for the whole session
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    private final int id;
+    private final String path;
+    private final String name;
+    private final String territoryName;
+    private final SubZone parent;
+    private final int depth;
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final int color;
+
+    /**
+     * Creates a sub-zone. Corners may be given in any order; bounds are inclusive.
+     *
+     * @param territoryName The friendly name of the territory the zone belongs to
+     * @param parent        The enclosing sub-zone, or null for a zone directly inside the territory
+     * @param name          The zone's name, shown as its title
+     * @param color         The title color, or {@link TerritoryStyle#UNSET_COLOR} for the default
+     */
+    public SubZone(String territoryName, SubZone parent, String name, int x1, int z1, int x2, int z2, int color) {
+        this.territoryName = territoryName;
+        this.parent = parent;
+        this.name = name;
+        this.depth = parent == null ? 1 : parent.depth + 1;
+        // Interned by path, so equally named zones in different places stay apart
+        this.path = (parent == null ? territoryName : parent.path) + "/" + name;
+        this.id = intern(path);
+        this.minX = Math.min(x1, x2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxZ = Math.max(z1, z2);
+        this.color = color;
+    }
+
+    /**
+     * @return The zone's interned ID, unrelated to territory IDs
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return The names from the territory down to this zone, separated by slashes
+     */
+    public String path() {
+        return path;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String territoryName() {
+        return territoryName;
+    }
+
+    /**
+     * @return The enclosing sub-zone, or null if the zone lies directly inside its territory
+     */
+    public SubZone parent() {
+        return parent;
+    }
+
+    /**
+     * @return How deeply the zone is nested, 1 for zones directly inside a territory
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return The name of the territory or sub-zone directly containing this one
+     */
+    public String parentName() {
+        return parent == null ? territoryName : parent.name;
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int maxX() {
+        return maxX;
+    }
+
+    public int maxZ() {
+        return maxZ;
+    }
+
+    public int color() {
+        return color;
+    }
+
+    public boolean hasColor() {
+        return color != TerritoryStyle.UNSET_COLOR;
+    }
+
+    /**
+     * Finds the shallowest level of the hierarchy that differs between two zones of the same territory,
+     * which is the only level that gets a title.
+     *
+     * @param from The zone the player was in, or null for none
+     * @param to   The zone the player is in now, or null for none
+     * @return The zone at the changed level along {@code to}'s path, or null if the player only moved
+     * outwards into an enclosing zone or didn't change zone
+     */
+    public static SubZone changedLevel(SubZone from, SubZone to) {
+        SubZone changed = null;
+        // Bring both paths to the same depth, remembering the new path's zones on the way up
+        while (to != null && (from == null || to.depth > from.depth)) {
+            changed = to;
+            to = to.parent;
+        }
+        while (from != null && from.depth > (to == null ? 0 : to.depth)) {
+            from = from.parent;
+        }
+        // Walk up until both paths meet
+        while (from != null && !from.equals(to)) {
+            changed = to;
+            from = from.parent;
+            to = to.parent;
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof SubZone other && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "SubZone[" + path + "]";
+    }
+
+    private static synchronized int intern(String path) {
+        Integer existing = IDS.get(path);
+        if (existing != null) return existing;
+
+        int id = IDS.size();
+        IDS.put(path, id);
+        return id;
+    }
+}
@@ -0,0 +1,376 @@
+package me.jamino.wynnWanderer.features;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable quadtree over the sub-zones of one territory, resolving the deepest zone at a point.
+ *
+ * <p>Nodes split into quadrants while they overlap more than a few zones. A zone that covers a
+ * whole node stays in that node, any other zone is listed in every quadrant it overlaps. A point
+ * lookup then walks a single root-to-leaf path, logarithmic in the zone count for small zones, and
+ * only tests the zones listed along it. Nodes are kept in flat arrays with the four children of a
+ * node stored next to each other.</p>
+ */
+public final class SubZoneIndex {
+    // Zones a node holds before it is split, and how deep the tree may grow
+    private static final int NODE_CAPACITY = 8;
+    private static final int MAX_TREE_DEPTH = 16;
+
+    // Zone bounds by position, inclusive
+    private final int[] minX;
+    private final int[] minZ;
+    private final int[] maxX;
+    private final int[] maxZ;
+    private final int[] depth;
+    private final SubZone[] zones;
+    // Whether another zone at the same or a deeper level overlaps the zone, such as a nested zone or
+    // an overlapping sibling. Lookups inside the zone's bounds may then return that other zone
+    private final boolean[] shadowed;
+
+    // Bounds of the root node
+    private final int rootMinX;
+    private final int rootMinZ;
+    private final int rootMaxX;
+    private final int rootMaxZ;
+
+    // Node layout: split point, first of four children or -1, and the node's zones in nodeZones[start .. end)
+    private final int[] nodeCenterX;
+    private final int[] nodeCenterZ;
+    private final int[] nodeChild;
+    private final int[] nodeStart;
+    private final int[] nodeEnd;
+    private final int[] nodeZones;
+
+    /**
+     * Builds the index.
+     *
+     * @param zones The territory's sub-zones at every depth, positions in lookups refer to this list
+     */
+    public SubZoneIndex(List<SubZone> zones) {
+        int count = zones.size();
+        this.zones = zones.toArray(new SubZone[0]);
+        minX = new int[count];
+        minZ = new int[count];
+        maxX = new int[count];
+        maxZ = new int[count];
+        depth = new int[count];
+        shadowed = new boolean[count];
+        int worldMinX = Integer.MAX_VALUE, worldMinZ = Integer.MAX_VALUE;
+        int worldMaxX = Integer.MIN_VALUE, worldMaxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            SubZone zone = this.zones[i];
+            minX[i] = zone.minX();
+            minZ[i] = zone.minZ();
+            maxX[i] = zone.maxX();
+            maxZ[i] = zone.maxZ();
+            depth[i] = zone.depth();
+            worldMinX = Math.min(worldMinX, minX[i]);
+            worldMinZ = Math.min(worldMinZ, minZ[i]);
+            worldMaxX = Math.max(worldMaxX, maxX[i]);
+            worldMaxZ = Math.max(worldMaxZ, maxZ[i]);
+        }
+        markShadowed();
+
+        rootMinX = worldMinX;
+        rootMinZ = worldMinZ;
+        rootMaxX = worldMaxX;
+        rootMaxZ = worldMaxZ;
+        TreeBuilder tree = new TreeBuilder(count);
+        if (count > 0) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            tree.allocate(1);
+            tree.buildNode(0, all, count, rootMinX, rootMinZ, rootMaxX, rootMaxZ, 0);
+        }
+        nodeCenterX = Arrays.copyOf(tree.centerX, tree.nodeCount);
+        nodeCenterZ = Arrays.copyOf(tree.centerZ, tree.nodeCount);
+        nodeChild = Arrays.copyOf(tree.child, tree.nodeCount);
+        nodeStart = Arrays.copyOf(tree.start, tree.nodeCount);
+        nodeEnd = Arrays.copyOf(tree.end, tree.nodeCount);
+        nodeZones = Arrays.copyOf(tree.zones, tree.zoneCount);
+    }
+
+    /**
+     * Finds the most deeply nested zone containing the given point. Of overlapping zones at
+     * the same depth, the smaller one wins.
+     *
+     * @param x The x coordinate
+     * @param z The z coordinate
+     * @return The zone's position in this index, or -1 if no zone contains the point
+     */
+    public int find(double x, double z) {
+        if (nodeChild.length == 0) return -1;
+        if (x < rootMinX || x > rootMaxX || z < rootMinZ || z > rootMaxZ) return -1;
+
+        int best = -1;
+        int bestDepth = 0;
+        long bestArea = Long.MAX_VALUE;
+        int node = 0;
+        while (true) {
+            for (int e = nodeStart[node], end = nodeEnd[node]; e < end; e++) {
+                int i = nodeZones[e];
+                if (x < minX[i] || x > maxX[i] || z < minZ[i] || z > maxZ[i]) continue;
+
+                if (depth[i] < bestDepth) continue;
+                long area = (long) (maxX[i] - minX[i] + 1) * (maxZ[i] - minZ[i] + 1);
+                if (depth[i] > bestDepth || area < bestArea) {
+                    best = i;
+                    bestDepth = depth[i];
+                    bestArea = area;
+                }
+            }
+
+            int child = nodeChild[node];
+            if (child < 0) return best;
+            node = child + (x >= nodeCenterX[node] ? 1 : 0) + (z >= nodeCenterZ[node] ? 2 : 0);
+        }
+    }
+
+    /**
+     * Shrinks a rectangle of blocks around a block until no zone touches it, so lookups anywhere
+     * inside return -1. The rectangle is also kept within the tree leaf the block falls in, since
+     * only the zones listed along the block's path through the tree can reach into that leaf.
+     *
+     * @param blockX The block's x coordinate
+     * @param blockZ The block's z coordinate
+     * @param bounds Inclusive block bounds {minX, minZ, maxX, maxZ} to shrink, e.g. the territory's
+     * @return false if a zone touches the block itself, the bounds are then meaningless
+     */
+    public boolean freeBounds(int blockX, int blockZ, int[] bounds) {
+        if (nodeChild.length == 0) return true;
+        // Outside the root no zone is near, cutting away the root's bounds is enough
+        if (cutAway(blockX, blockZ, rootMinX, rootMinZ, rootMaxX, rootMaxZ, bounds)) return true;
+
+        int nodeMinX = rootMinX, nodeMinZ = rootMinZ, nodeMaxX = rootMaxX, nodeMaxZ = rootMaxZ;
+        int leaf = 0;
+        while (nodeChild[leaf] >= 0) {
+            int child = nodeChild[leaf];
+            if (blockX >= nodeCenterX[leaf]) {
+                nodeMinX = nodeCenterX[leaf];
+                child += 1;
+            } else {
+                nodeMaxX = nodeCenterX[leaf] - 1;
+            }
+            if (blockZ >= nodeCenterZ[leaf]) {
+                nodeMinZ = nodeCenterZ[leaf];
+                child += 2;
+            } else {
+                nodeMaxZ = nodeCenterZ[leaf] - 1;
+            }
+            leaf = child;
+        }
+        bounds[0] = Math.max(bounds[0], nodeMinX);
+        bounds[1] = Math.max(bounds[1], nodeMinZ);
+        bounds[2] = Math.min(bounds[2], nodeMaxX);
+        bounds[3] = Math.min(bounds[3], nodeMaxZ);
+
+        int node = 0;
+        while (true) {
+            for (int e = nodeStart[node], end = nodeEnd[node]; e < end; e++) {
+                int i = nodeZones[e];
+                if (!cutAway(blockX, blockZ, minX[i], minZ[i], maxX[i], maxZ[i], bounds)) return false;
+            }
+            if (node == leaf) return true;
+            node = nodeChild[node] + (blockX >= nodeCenterX[node] ? 1 : 0) + (blockZ >= nodeCenterZ[node] ? 2 : 0);
+        }
+    }
+
+    /**
+     * Shrinks bounds so they no longer overlap a box, along whichever side keeps the most area.
+     *
+     * @return true if the box lies outside the block, so the bounds still contain it
+     */
+    private static boolean cutAway(int blockX, int blockZ, int boxMinX, int boxMinZ, int boxMaxX, int boxMaxZ, int[] bounds) {
+        boolean outside = blockX < boxMinX || blockX > boxMaxX || blockZ < boxMinZ || blockZ > boxMaxZ;
+        if (!outside || boxMinX > bounds[2] || boxMaxX < bounds[0] || boxMinZ > bounds[3] || boxMaxZ < bounds[1]) {
+            return outside;
+        }
+
+        long width = Math.max(0, (long) bounds[2] - bounds[0] + 1);
+        long height = Math.max(0, (long) bounds[3] - bounds[1] + 1);
+        // Area left by each side the box can be cut away along, -1 where the block is not on that side
+        long keepLowX = blockX < boxMinX ? Math.max(0, (long) boxMinX - bounds[0]) * height : -1;
+        long keepHighX = blockX > boxMaxX ? Math.max(0, (long) bounds[2] - boxMaxX) * height : -1;
+        long keepLowZ = blockZ < boxMinZ ? Math.max(0, (long) boxMinZ - bounds[1]) * width : -1;
+        long keepHighZ = blockZ > boxMaxZ ? Math.max(0, (long) bounds[3] - boxMaxZ) * width : -1;
+        long best = Math.max(Math.max(keepLowX, keepHighX), Math.max(keepLowZ, keepHighZ));
+        if (best == keepLowX) {
+            bounds[2] = boxMinX - 1;
+        } else if (best == keepHighX) {
+            bounds[0] = boxMaxX + 1;
+        } else if (best == keepLowZ) {
+            bounds[3] = boxMinZ - 1;
+        } else {
+            bounds[1] = boxMaxZ + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the zone stored at a position in this index.
+     *
+     * @param i The zone's position, as returned by {@link #find(double, double)}
+     * @return The zone
+     */
+    public SubZone valueAt(int i) {
+        return zones[i];
+    }
+
+    /**
+     * Checks whether a zone is the lookup result everywhere inside its bounds. That is the case unless
+     * another zone at the same or a deeper level overlaps it, such as a nested zone or an overlapping sibling.
+     *
+     * @param i The zone's position
+     * @return true if {@link #find(double, double)} returns the zone at every point inside its bounds
+     */
+    public boolean ownsBounds(int i) {
+        return !shadowed[i];
+    }
+
+    public int minX(int i) {
+        return minX[i];
+    }
+
+    public int minZ(int i) {
+        return minZ[i];
+    }
+
+    public int maxX(int i) {
+        return maxX[i];
+    }
+
+    public int maxZ(int i) {
+        return maxZ[i];
+    }
+
+    /**
+     * Gets the number of zones in this index.
+     *
+     * @return The zone count
+     */
+    public int size() {
+        return zones.length;
+    }
+
+    /**
+     * Marks every zone that another zone at the same or a deeper level overlaps. Sweeps the zones in
+     * order of their min x, so only pairs overlapping along x are compared.
+     */
+    private void markShadowed() {
+        Integer[] order = new Integer[zones.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(minX[a], minX[b]));
+
+        for (int m = 0; m < order.length; m++) {
+            int a = order[m];
+            for (int n = m + 1; n < order.length && minX[order[n]] <= maxX[a]; n++) {
+                int b = order[n];
+                if (minZ[b] > maxZ[a] || maxZ[b] < minZ[a]) continue;
+
+                // The shallower zone can lose to the other inside its bounds, at equal depth either can
+                if (depth[a] <= depth[b]) shadowed[a] = true;
+                if (depth[b] <= depth[a]) shadowed[b] = true;
+            }
+        }
+    }
+
+    /**
+     * Grows the flat node arrays while the tree is built.
+     */
+    private final class TreeBuilder {
+        int[] centerX = new int[16];
+        int[] centerZ = new int[16];
+        int[] child = new int[16];
+        int[] start = new int[16];
+        int[] end = new int[16];
+        int nodeCount = 0;
+        int[] zones;
+        int zoneCount = 0;
+
+        TreeBuilder(int zoneCount) {
+            zones = new int[Math.max(16, zoneCount)];
+        }
+
+        int allocate(int count) {
+            int first = nodeCount;
+            nodeCount += count;
+            if (nodeCount > child.length) {
+                int newLength = Math.max(nodeCount, child.length * 2);
+                centerX = Arrays.copyOf(centerX, newLength);
+                centerZ = Arrays.copyOf(centerZ, newLength);
+                child = Arrays.copyOf(child, newLength);
+                start = Arrays.copyOf(start, newLength);
+                end = Arrays.copyOf(end, newLength);
+            }
+            return first;
+        }
+
+        void addZone(int i) {
+            if (zoneCount == zones.length) {
+                zones = Arrays.copyOf(zones, zoneCount * 2);
+            }
+            zones[zoneCount++] = i;
+        }
+
+        /**
+         * Keeps the zones covering the whole node in it and pushes the others down into every quadrant
+         * they overlap, until few enough are left. Quadrant 0 is the low x and low z corner,
+         * bit 0 selects high x and bit 1 high z.
+         */
+        void buildNode(int node, int[] members, int count, int nodeMinX, int nodeMinZ, int nodeMaxX, int nodeMaxZ, int treeDepth) {
+            // Rounds down for negative coordinates too, and never overflows
+            int splitX = (int) (((long) nodeMinX + nodeMaxX + 1) >> 1);
+            int splitZ = (int) (((long) nodeMinZ + nodeMaxZ + 1) >> 1);
+            centerX[node] = splitX;
+            centerZ[node] = splitZ;
+            child[node] = -1;
+            start[node] = zoneCount;
+
+            // Covering zones contain every point below this node, so splitting can't separate them
+            int[] partial = new int[count];
+            int partialCount = 0;
+            for (int m = 0; m < count; m++) {
+                int i = members[m];
+                if (minX[i] <= nodeMinX && maxX[i] >= nodeMaxX && minZ[i] <= nodeMinZ && maxZ[i] >= nodeMaxZ) {
+                    addZone(i);
+                } else {
+                    partial[partialCount++] = i;
+                }
+            }
+
+            boolean split = partialCount > NODE_CAPACITY && treeDepth < MAX_TREE_DEPTH
+                    && nodeMaxX > nodeMinX && nodeMaxZ > nodeMinZ;
+            if (!split) {
+                for (int m = 0; m < partialCount; m++) {
+                    addZone(partial[m]);
+                }
+                end[node] = zoneCount;
+                return;
+            }
+            end[node] = zoneCount;
+
+            int firstChild = allocate(4);
+            child[node] = firstChild;
+            int[] quadrantMembers = new int[partialCount];
+            for (int q = 0; q < 4; q++) {
+                int childMinX = (q & 1) == 0 ? nodeMinX : splitX;
+                int childMaxX = (q & 1) == 0 ? splitX - 1 : nodeMaxX;
+                int childMinZ = (q & 2) == 0 ? nodeMinZ : splitZ;
+                int childMaxZ = (q & 2) == 0 ? splitZ - 1 : nodeMaxZ;
+                int quadrantCount = 0;
+                for (int m = 0; m < partialCount; m++) {
+                    int i = partial[m];
+                    if (minX[i] <= childMaxX && maxX[i] >= childMinX && minZ[i] <= childMaxZ && maxZ[i] >= childMinZ) {
+                        quadrantMembers[quadrantCount++] = i;
+                    }
+                }
+                buildNode(firstChild + q, quadrantMembers, quadrantCount, childMinX, childMinZ, childMaxX, childMaxZ, treeDepth + 1);
+            }
+        }
+    }
+}
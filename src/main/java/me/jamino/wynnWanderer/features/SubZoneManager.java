@@ -0,0 +1,271 @@
+package me.jamino.wynnWanderer.features;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of named sub-zones inside territories.
+ *
+ * <p>Zones are read from {@code assets/wynn-wanderer/sub_zones.json}, which resource packs can replace,
+ * and then from an optional user file in the config directory. A territory listed in a later file
+ * replaces that territory's zones from earlier ones. On every resource reload the zones are compiled
+ * into one {@link SubZoneIndex} per territory, in a table indexed by territory ID.</p>
+ */
+public final class SubZoneManager {
+    private static final Identifier REGISTRY_ID = Identifier.of("wynn-wanderer", "sub_zones.json");
+
+    // Zone index for each territory ID, null if the territory has no zones
+    private static volatile SubZoneIndex[] indexById = new SubZoneIndex[0];
+    // Incremented on every compile so cached lookups know to redo their work
+    private static volatile int generation = 0;
+    private static Path userFile = null;
+    // Resource reloads are skipped until the first load, which happens on first join. Client thread only
+    private static boolean initialized = false;
+
+    private SubZoneManager() {
+    }
+
+    /**
+     * Registers the registry to be (re)loaded with client resources, so it follows resource packs and F3+T.
+     *
+     * @param userOverrideFile Optional user file whose territories override the bundled ones
+     */
+    public static void registerReloadListener(Path userOverrideFile) {
+        userFile = userOverrideFile;
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+            @Override
+            public Identifier getFabricId() {
+                return Identifier.of("wynn-wanderer", "sub_zones");
+            }
+
+            @Override
+            public void reload(ResourceManager manager) {
+                if (initialized) {
+                    SubZoneManager.reload(manager);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the zones for the first time and from then on with every resource reload.
+     * Deferred so game startup doesn't pay for parsing it.
+     *
+     * @param manager The resource manager to read the bundled zones from
+     */
+    public static void initialize(ResourceManager manager) {
+        initialized = true;
+        reload(manager);
+    }
+
+    /**
+     * Reloads the zones from resources and the user file, replacing the current table.
+     *
+     * @param manager The resource manager to read the bundled zones from
+     */
+    public static void reload(ResourceManager manager) {
+        Map<String, List<SubZone>> zones = new LinkedHashMap<>();
+
+        Optional<Resource> resource = manager.getResource(REGISTRY_ID);
+        if (resource.isPresent()) {
+            try (Reader reader = resource.get().getReader()) {
+                readTerritories(reader, zones);
+            } catch (IOException | RuntimeException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error reading sub-zones from resources", e);
+            }
+        }
+
+        if (userFile != null && Files.isRegularFile(userFile)) {
+            try (Reader reader = Files.newBufferedReader(userFile, StandardCharsets.UTF_8)) {
+                readTerritories(reader, zones);
+            } catch (IOException | RuntimeException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error reading sub-zones from '" + userFile + "'", e);
+            }
+        }
+
+        compile(zones);
+    }
+
+    /**
+     * Replaces the registry with the zones of a single file, without resources.
+     *
+     * @param reader Reader over a sub-zone file
+     */
+    public static void load(Reader reader) {
+        Map<String, List<SubZone>> zones = new LinkedHashMap<>();
+        readTerritories(reader, zones);
+        compile(zones);
+    }
+
+    /**
+     * Replaces the registry with the given zones.
+     *
+     * @param zones Every zone of each territory at any depth, keyed by the territory's friendly name
+     */
+    public static void compile(Map<String, List<SubZone>> zones) {
+        int maxId = -1;
+        int[] ids = new int[zones.size()];
+        int i = 0;
+        for (String name : zones.keySet()) {
+            ids[i] = TerritoryIds.intern(name);
+            maxId = Math.max(maxId, ids[i]);
+            i++;
+        }
+
+        SubZoneIndex[] table = new SubZoneIndex[maxId + 1];
+        i = 0;
+        for (List<SubZone> territoryZones : zones.values()) {
+            int id = ids[i++];
+            table[id] = territoryZones.isEmpty() ? null : new SubZoneIndex(territoryZones);
+        }
+        indexById = table;
+        generation++;
+    }
+
+    /**
+     * Gets a counter that changes every time the registry is replaced.
+     *
+     * @return The registry generation
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the zones of a territory.
+     *
+     * @param territoryId The territory ID
+     * @return The territory's zone index, or null if it has no zones
+     */
+    public static SubZoneIndex get(int territoryId) {
+        SubZoneIndex[] table = indexById;
+        return territoryId >= 0 && territoryId < table.length ? table[territoryId] : null;
+    }
+
+    /**
+     * Reads a file of the form {@code {"territories": {"Name": {"zones": [...]}}}} into the map.
+     */
+    private static void readTerritories(Reader reader, Map<String, List<SubZone>> zones) {
+        JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+        JsonObject territories = root.getAsJsonObject("territories");
+        if (territories == null) return;
+
+        for (Map.Entry<String, JsonElement> entry : territories.entrySet()) {
+            List<SubZone> territoryZones = new ArrayList<>();
+            JsonElement zoneList = entry.getValue().isJsonObject() ? entry.getValue().getAsJsonObject().get("zones") : null;
+            if (zoneList != null && zoneList.isJsonArray()) {
+                readZones(entry.getKey(), null, zoneList.getAsJsonArray(), territoryZones);
+            } else if (zoneList != null) {
+                ErrorReporter.warn(Feature.CONFIG, "Zones of '" + entry.getKey() + "' are not a list. Ignoring...");
+            }
+            // Replaces the territory's zones from an earlier file, an empty list removes them
+            zones.put(entry.getKey(), territoryZones);
+        }
+    }
+
+    /**
+     * Reads a list of zones and, depth first, the zones nested in each.
+     * A nested zone is clipped to its parent's bounds.
+     */
+    private static void readZones(String territory, SubZone parent, JsonArray array, List<SubZone> out) {
+        if (array == null) return;
+
+        for (JsonElement element : array) {
+            JsonObject properties = element.isJsonObject() ? element.getAsJsonObject() : null;
+            if (properties == null || !properties.has("name") || !properties.has("from") || !properties.has("to")) {
+                ErrorReporter.warn(Feature.CONFIG, "Sub-zone in '" + territory + "' needs a name, from and to. Ignoring...");
+                continue;
+            }
+            if (!isString(properties.get("name"))) {
+                ErrorReporter.warn(Feature.CONFIG, "Sub-zone in '" + territory + "' has a name that is not a string. Ignoring...");
+                continue;
+            }
+            String name = properties.get("name").getAsString();
+            int[] from = readCorner(properties.get("from"));
+            int[] to = readCorner(properties.get("to"));
+            if (from == null || to == null) {
+                ErrorReporter.warn(Feature.CONFIG, "Sub-zone '" + name + "' in '" + territory + "' needs from and to as [x, z]. Ignoring...");
+                continue;
+            }
+            int minX = Math.min(from[0], to[0]);
+            int minZ = Math.min(from[1], to[1]);
+            int maxX = Math.max(from[0], to[0]);
+            int maxZ = Math.max(from[1], to[1]);
+            if (parent != null) {
+                minX = Math.max(minX, parent.minX());
+                minZ = Math.max(minZ, parent.minZ());
+                maxX = Math.min(maxX, parent.maxX());
+                maxZ = Math.min(maxZ, parent.maxZ());
+                if (minX > maxX || minZ > maxZ) {
+                    ErrorReporter.warn(Feature.CONFIG, "Sub-zone '" + name + "' lies outside '" + parent.name() + "'. Ignoring...");
+                    continue;
+                }
+            }
+
+            int color = TerritoryStyle.UNSET_COLOR;
+            if (properties.has("color")) {
+                String colorString = isString(properties.get("color")) ? properties.get("color").getAsString() : "";
+                if (colorString.matches("#?[0-9A-Fa-f]{6}")) {
+                    color = TerritoryRenderer.parseColor(colorString);
+                } else {
+                    ErrorReporter.warn(Feature.CONFIG, "Sub-zone '" + name + "' has an invalid color '" + properties.get("color") + "'. Ignoring...");
+                }
+            }
+
+            SubZone zone = new SubZone(territory, parent, name, minX, minZ, maxX, maxZ, color);
+            out.add(zone);
+            JsonElement children = properties.get("zones");
+            if (children != null && !children.isJsonArray()) {
+                ErrorReporter.warn(Feature.CONFIG, "Zones of sub-zone '" + name + "' are not a list. Ignoring...");
+            } else {
+                readZones(territory, zone, children == null ? null : children.getAsJsonArray(), out);
+            }
+        }
+    }
+
+    /**
+     * Reads an {@code [x, z]} corner.
+     *
+     * @return The corner, or null if the element isn't two whole numbers
+     */
+    private static int[] readCorner(JsonElement element) {
+        if (element == null || !element.isJsonArray()) return null;
+
+        JsonArray array = element.getAsJsonArray();
+        if (array.size() != 2) return null;
+        int[] corner = new int[2];
+        for (int i = 0; i < 2; i++) {
+            JsonElement value = array.get(i);
+            if (!value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) return null;
+            double coordinate = value.getAsDouble();
+            if (coordinate != Math.rint(coordinate) || Math.abs(coordinate) > Integer.MAX_VALUE) return null;
+            corner[i] = (int) coordinate;
+        }
+        return corner;
+    }
+
+    private static boolean isString(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
+    }
+}
@@ -0,0 +1,44 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Wanderer-owned description of a territory, independent of Wynntils' profiles
+ * so it can also be restored from the territory snapshot before Wynntils has loaded.
+ *
+ * @param id   The territory's interned ID, see {@link TerritoryIds}
+ * @param name The territory's friendly name, empty if it has none
+ * @param minX The smallest x coordinate inside the territory
+ * @param minZ The smallest z coordinate inside the territory
+ * @param maxX The largest x coordinate inside the territory
+ * @param maxZ The largest z coordinate inside the territory
+ */
+public record TerritoryArea(int id, String name, int minX, int minZ, int maxX, int maxZ) {
+    public TerritoryArea {
+        if (name == null) name = "";
+        if (minX > maxX) {
+            int swap = minX;
+            minX = maxX;
+            maxX = swap;
+        }
+        if (minZ > maxZ) {
+            int swap = minZ;
+            minZ = maxZ;
+            maxZ = swap;
+        }
+    }
+
+    /**
+     * Creates a territory, interning its name to get its ID.
+     */
+    public TerritoryArea(String name, int minX, int minZ, int maxX, int maxZ) {
+        this(TerritoryIds.intern(name == null ? "" : name), name, minX, minZ, maxX, maxZ);
+    }
+
+    /**
+     * Checks whether the territory has a name that can be shown as a title.
+     *
+     * @return true if the name is not empty
+     */
+    public boolean hasName() {
+        return !name.isEmpty();
+    }
+}
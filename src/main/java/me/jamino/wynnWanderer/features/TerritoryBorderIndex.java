@@ -0,0 +1,235 @@
+package me.jamino.wynnWanderer.features;
+
+import java.util.Arrays;
+
+/**
+ * Immutable spatial hash over the edges of every territory in a {@link TerritoryIndex}, for
+ * finding the next territory along the player's heading.
+ *
+ * <p>Each territory contributes its four edges. An edge is listed in every hash cell it passes
+ * through, so a ray query only walks the cells along the ray and tests the few edges in them.
+ * Cells hash into a fixed table, so the world extent doesn't matter and collisions only add
+ * edges that fail the exact test.</p>
+ */
+public final class TerritoryBorderIndex {
+    private static final int MIN_CELL_SHIFT = 4; // 16 blocks
+    private static final int MAX_CELL_SHIFT = 12;
+    private static final double MAX_COORDINATE = 1 << 28;
+
+    // Edge sides, each only crossed inwards by a ray heading the matching way
+    private static final byte SIDE_MIN_X = 0;
+    private static final byte SIDE_MAX_X = 1;
+    private static final byte SIDE_MIN_Z = 2;
+    private static final byte SIDE_MAX_Z = 3;
+
+    private static final TerritoryBorderIndex EMPTY = new TerritoryBorderIndex(TerritoryIndex.empty());
+
+    // Territory bounds by index position, inclusive
+    private final int[] minX;
+    private final int[] minZ;
+    private final int[] maxX;
+    private final int[] maxZ;
+
+    // Hash buckets of edges. Edge e is side e & 3 of territory e >> 2, so edges need no storage of their own
+    private final int cellShift;
+    private final int bucketMask;
+    private final int[] bucketStart;
+    private final int[] bucketEdges;
+
+    private TerritoryBorderIndex(TerritoryIndex<?> index) {
+        int count = index.size();
+        minX = new int[count];
+        minZ = new int[count];
+        maxX = new int[count];
+        maxZ = new int[count];
+        double totalSide = 0;
+        for (int i = 0; i < count; i++) {
+            minX[i] = index.minX(i);
+            minZ[i] = index.minZ(i);
+            maxX[i] = index.maxX(i);
+            maxZ[i] = index.maxZ(i);
+            totalSide += Math.sqrt((double) (maxX[i] - minX[i] + 1) * (maxZ[i] - minZ[i] + 1));
+        }
+
+        // Cells roughly the size of an average territory, so each edge spans only a few cells
+        int shift = MIN_CELL_SHIFT;
+        while (count > 0 && shift < MAX_CELL_SHIFT && (1 << shift) < totalSide / count) {
+            shift++;
+        }
+        cellShift = shift;
+
+        // Count cell entries to size the table, about two buckets per entry keeps chains short
+        long entries = 0;
+        for (int i = 0; i < count; i++) {
+            long columns = (maxX[i] >> shift) - (minX[i] >> shift) + 1;
+            long rows = (maxZ[i] >> shift) - (minZ[i] >> shift) + 1;
+            entries += 2 * columns + 2 * rows;
+        }
+        int buckets = Integer.highestOneBit((int) Math.max(16, Math.min(1 << 24, entries * 2)) - 1) << 1;
+        bucketMask = buckets - 1;
+
+        // Two passes: count edges per bucket, then fill the compact edge array
+        bucketStart = new int[buckets + 1];
+        for (int i = 0; i < count; i++) {
+            for (int side = 0; side < 4; side++) {
+                forEachCell(i, side, (bucket, edge) -> bucketStart[bucket + 1]++);
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        bucketEdges = new int[bucketStart[buckets]];
+        int[] fill = Arrays.copyOf(bucketStart, buckets);
+        for (int i = 0; i < count; i++) {
+            for (int side = 0; side < 4; side++) {
+                forEachCell(i, side, (bucket, edge) -> bucketEdges[fill[bucket]++] = edge);
+            }
+        }
+    }
+
+    /**
+     * Builds the border index for a territory index. Positions in query results match the index.
+     *
+     * @param index The territory index
+     * @return The border index
+     */
+    public static TerritoryBorderIndex of(TerritoryIndex<?> index) {
+        return index.isEmpty() ? EMPTY : new TerritoryBorderIndex(index);
+    }
+
+    @FunctionalInterface
+    private interface CellConsumer {
+        void accept(int bucket, int edge);
+    }
+
+    private void forEachCell(int territory, int side, CellConsumer consumer) {
+        int edge = territory << 2 | side;
+        if (side == SIDE_MIN_X || side == SIDE_MAX_X) {
+            int column = (side == SIDE_MIN_X ? minX[territory] : maxX[territory]) >> cellShift;
+            for (int row = minZ[territory] >> cellShift; row <= maxZ[territory] >> cellShift; row++) {
+                consumer.accept(bucket(column, row), edge);
+            }
+        } else {
+            int row = (side == SIDE_MIN_Z ? minZ[territory] : maxZ[territory]) >> cellShift;
+            for (int column = minX[territory] >> cellShift; column <= maxX[territory] >> cellShift; column++) {
+                consumer.accept(bucket(column, row), edge);
+            }
+        }
+    }
+
+    private int bucket(int column, int row) {
+        int hash = column * 0x9E3779B1 ^ row * 0x85EBCA77;
+        return (hash ^ hash >>> 15) & bucketMask;
+    }
+
+    /**
+     * Finds the first territory edge a ray crosses into a territory.
+     * Edges of territories the ray starts in are crossed outwards and never match.
+     *
+     * @param x           Ray origin x
+     * @param z           Ray origin z
+     * @param dirX        Ray direction x, the direction must have unit length
+     * @param dirZ        Ray direction z
+     * @param maxDistance How far along the ray to search, in blocks
+     * @param hit         Receives the entered territory and the distance to its edge
+     * @return true if the ray enters a territory within maxDistance
+     */
+    public boolean raycast(double x, double z, double dirX, double dirZ, double maxDistance, Hit hit) {
+        hit.position = -1;
+        hit.distance = Double.POSITIVE_INFINITY;
+        if (bucketEdges.length == 0 || !(maxDistance > 0)) return false;
+        // Far outside any real map, and cell math would overflow
+        if (Math.abs(x) > MAX_COORDINATE || Math.abs(z) > MAX_COORDINATE) return false;
+
+        int cellSize = 1 << cellShift;
+        int column = (int) Math.floor(x) >> cellShift;
+        int row = (int) Math.floor(z) >> cellShift;
+        int stepX = dirX > 0 ? 1 : dirX < 0 ? -1 : 0;
+        int stepZ = dirZ > 0 ? 1 : dirZ < 0 ? -1 : 0;
+
+        // Distance along the ray to the next column and row boundary, and between boundaries
+        double nextX = stepX == 0 ? Double.POSITIVE_INFINITY
+                : ((double) (column + (stepX > 0 ? 1 : 0)) * cellSize - x) / dirX;
+        double nextZ = stepZ == 0 ? Double.POSITIVE_INFINITY
+                : ((double) (row + (stepZ > 0 ? 1 : 0)) * cellSize - z) / dirZ;
+        double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dirX);
+        double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : cellSize / Math.abs(dirZ);
+
+        double cellEntry = 0;
+        // An edge found in one cell can lie further along than the next cell, so keep walking until none can be closer
+        while (cellEntry <= maxDistance && cellEntry < hit.distance) {
+            int bucket = bucket(column, row);
+            for (int e = bucketStart[bucket], end = bucketStart[bucket + 1]; e < end; e++) {
+                testEdge(bucketEdges[e], x, z, dirX, dirZ, maxDistance, hit);
+            }
+
+            if (nextX < nextZ) {
+                cellEntry = nextX;
+                nextX += deltaX;
+                column += stepX;
+            } else {
+                cellEntry = nextZ;
+                nextZ += deltaZ;
+                row += stepZ;
+            }
+        }
+        return hit.position >= 0;
+    }
+
+    private void testEdge(int edge, double x, double z, double dirX, double dirZ, double maxDistance, Hit hit) {
+        int territory = edge >> 2;
+        double distance;
+        switch (edge & 3) {
+            case SIDE_MIN_X -> {
+                if (dirX <= 0) return;
+                distance = (minX[territory] - x) / dirX;
+            }
+            case SIDE_MAX_X -> {
+                if (dirX >= 0) return;
+                distance = (maxX[territory] - x) / dirX;
+            }
+            case SIDE_MIN_Z -> {
+                if (dirZ <= 0) return;
+                distance = (minZ[territory] - z) / dirZ;
+            }
+            default -> {
+                if (dirZ >= 0) return;
+                distance = (maxZ[territory] - z) / dirZ;
+            }
+        }
+        if (distance <= 0 || distance > maxDistance || distance >= hit.distance) return;
+
+        // The crossing point must lie on the edge itself
+        if ((edge & 3) < SIDE_MIN_Z) {
+            double crossZ = z + dirZ * distance;
+            if (crossZ < minZ[territory] || crossZ > maxZ[territory]) return;
+        } else {
+            double crossX = x + dirX * distance;
+            if (crossX < minX[territory] || crossX > maxX[territory]) return;
+        }
+        hit.position = territory;
+        hit.distance = distance;
+    }
+
+    /**
+     * Reusable result of {@link #raycast}, so per-tick queries don't allocate.
+     */
+    public static final class Hit {
+        private int position = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+
+        /**
+         * @return The entered territory's position in the territory index, or -1 if none was found
+         */
+        public int position() {
+            return position;
+        }
+
+        /**
+         * @return The distance along the ray to the crossing, in blocks
+         */
+        public double distance() {
+            return distance;
+        }
+    }
+}
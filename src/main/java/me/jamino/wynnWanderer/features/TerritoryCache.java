@@ -1,17 +1,41 @@
 package me.jamino.wynnWanderer.features;
 
+import com.wynntils.core.components.Models;
 import com.wynntils.models.territories.profile.TerritoryProfile;
+import me.jamino.wynnWanderer.metrics.Metrics;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.function.Predicate;
 
 /**
- * Manages a cache of recently visited territories to prevent
+ * Manages a cache of recently shown territories to prevent
  * repeated title displays when crossing the same territories repeatedly.
+ *
+ * <p>Each territory is keyed by its interned ID and remembers the tick its title was
+ * last shown. Entries expire once they are older than the longest cooldown, and the
+ * oldest entries are evicted when the cache is full. Both happen through an expiry
+ * queue ordered by show time, so eviction is amortized constant time.</p>
  */
 public class TerritoryCache {
-    private final LinkedList<TerritoryProfile> recentEntries = new LinkedList<>();
-    private int cacheSize = 3;
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    // Tick each territory ID was last shown at, ABSENT if it is not cached
+    private long[] lastShown = new long[0];
+    // Per-ID cooldown overrides in ticks, 0 uses the default cooldown
+    private int[] cooldownOverrides = new int[0];
+    private int liveEntries = 0;
+
+    // Expiry queue of (ID, show tick) records, oldest first. A record is stale once
+    // its territory has been shown again, stale records are skipped when reached.
+    private int[] queueIds = new int[16];
+    private long[] queueTicks = new long[16];
+    private int queueHead = 0;
+    private int queueSize = 0;
+
+    private long currentTick = 0;
+    private int cacheSize;
+    private int defaultCooldown = 80;
+    private int maxCooldown = 80;
 
     /**
      * Constructs a territory cache with the specified size.
@@ -19,40 +43,173 @@ public class TerritoryCache {
      * @param cacheSize Maximum number of territories to cache
      */
     public TerritoryCache(int cacheSize) {
-        this.cacheSize = cacheSize;
+        this.cacheSize = Math.max(0, cacheSize);
+    }
+
+    /**
+     * Advances the cache clock by one tick and drops expired entries.
+     */
+    public void tick() {
+        currentTick++;
+        expire();
+    }
+
+    /**
+     * Adds a territory to the cache of recently shown territories.
+     *
+     * @param entry The territory to add
+     */
+    public void addEntry(TerritoryArea entry) {
+        add(entry.id());
     }
 
     /**
-     * Adds a territory to the cache of recently visited territories.
+     * Adds a territory to the cache of recently shown territories.
      *
      * @param entry The territory profile to add
      */
     public void addEntry(TerritoryProfile entry) {
-        // Avoid adding duplicates if it's already the last entry
-        if (!recentEntries.isEmpty() && recentEntries.getLast().equals(entry)) {
-            return;
+        add(TerritoryIds.intern(entry.getFriendlyName() == null ? "" : entry.getFriendlyName()));
+    }
+
+    /**
+     * Records that a territory's title was shown on the current tick.
+     *
+     * @param id The territory ID to add
+     */
+    public void add(int id) {
+        if (cacheSize == 0 || id < 0) return;
+
+        ensureIdCapacity(id);
+        if (lastShown[id] == ABSENT) {
+            liveEntries++;
+        }
+        lastShown[id] = currentTick;
+        enqueue(id, currentTick);
+
+        // Remove oldest while the cache size is exceeded
+        while (liveEntries > cacheSize) {
+            removeOldest();
         }
 
-        // Remove oldest if cache size is exceeded
-        while (recentEntries.size() >= cacheSize && !recentEntries.isEmpty()) {
-            recentEntries.removeFirst();
+        // Stale records pile up when the same territories are shown repeatedly
+        if (queueSize > 2 * liveEntries + 16) {
+            compactQueue();
         }
+    }
+
+    /**
+     * Checks if a territory is in the cache.
+     *
+     * @param entry The territory to look for
+     * @return true if the territory is cached, false otherwise
+     */
+    public boolean contains(TerritoryArea entry) {
+        return contains(entry.id());
+    }
+
+    /**
+     * Checks if a territory ID is in the cache.
+     *
+     * @param id The territory ID to look for
+     * @return true if the territory is cached, false otherwise
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < lastShown.length && lastShown[id] != ABSENT;
+    }
+
+    /**
+     * Checks if a territory was shown recently enough that its title should be suppressed.
+     *
+     * @param id The territory ID
+     * @return true if the territory's cooldown has not yet elapsed
+     */
+    public boolean isCoolingDown(int id) {
+        boolean coolingDown = contains(id) && currentTick - lastShown[id] < getCooldown(id);
+        (coolingDown ? Metrics.COOLDOWN_HITS : Metrics.COOLDOWN_MISSES).increment();
+        return coolingDown;
+    }
 
-        // Add new entry if cache size allows
-        if (cacheSize > 0) {
-            recentEntries.addLast(entry);
+    /**
+     * Gets the cooldown applied to a territory.
+     *
+     * @param id The territory ID
+     * @return The cooldown in ticks
+     */
+    public int getCooldown(int id) {
+        if (id >= 0 && id < cooldownOverrides.length && cooldownOverrides[id] > 0) {
+            return cooldownOverrides[id];
         }
+        return defaultCooldown;
+    }
+
+    /**
+     * Sets the cooldown used for territories without an override.
+     *
+     * @param ticks The cooldown in ticks
+     */
+    public void setDefaultCooldown(int ticks) {
+        this.defaultCooldown = Math.max(0, ticks);
+        updateMaxCooldown();
+    }
+
+    /**
+     * Replaces all per-territory cooldown overrides.
+     *
+     * @param ids   The territory IDs to override
+     * @param ticks The cooldown for each ID, in ticks
+     */
+    public void setCooldownOverrides(int[] ids, int[] ticks) {
+        Arrays.fill(cooldownOverrides, 0);
+        for (int i = 0; i < ids.length; i++) {
+            ensureIdCapacity(ids[i]);
+            cooldownOverrides[ids[i]] = Math.max(0, ticks[i]);
+        }
+        updateMaxCooldown();
+    }
+
+    /**
+     * Checks if any entry in the cache matches the given predicate.
+     * Entries are resolved to the most recently indexed territory for their ID.
+     *
+     * @param entryMatchPredicate Predicate to test entries against
+     * @return true if any entry matches the predicate, false otherwise
+     * @deprecated Use {@link #contains(TerritoryArea)}, which does not allocate
+     */
+    @Deprecated
+    public boolean matchesAnyArea(Predicate<TerritoryArea> entryMatchPredicate) {
+        for (int i = 0; i < queueSize; i++) {
+            int slot = (queueHead + i) & (queueIds.length - 1);
+            if (isStale(slot)) continue;
+
+            TerritoryArea area = TerritoryIds.area(queueIds[slot]);
+            if (area != null && entryMatchPredicate.test(area)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Checks if any entry in the cache matches the given predicate.
+     * Entries are resolved to Wynntils' current profile for their territory name.
      *
      * @param entryMatchPredicate Predicate to test entries against
      * @return true if any entry matches the predicate, false otherwise
+     * @deprecated Use {@link #contains(TerritoryArea)}, which does not allocate or need Wynntils
      */
+    @Deprecated
     public boolean matchesAnyEntry(Predicate<TerritoryProfile> entryMatchPredicate) {
-        // Check if the predicate matches any entry in the current list
-        return recentEntries.stream().anyMatch(entryMatchPredicate);
+        for (int i = 0; i < queueSize; i++) {
+            int slot = (queueHead + i) & (queueIds.length - 1);
+            if (isStale(slot)) continue;
+
+            TerritoryProfile profile = Models.Territory.getTerritoryProfile(TerritoryIds.name(queueIds[slot]));
+            if (profile != null && entryMatchPredicate.test(profile)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -61,11 +218,11 @@ public class TerritoryCache {
      * @param newSize The new maximum cache size
      */
     public void setCacheSize(int newSize) {
-        this.cacheSize = newSize;
+        this.cacheSize = Math.max(0, newSize);
 
-        // Ensure the recent entries list respects the new cache size immediately
-        while (recentEntries.size() > this.cacheSize && !recentEntries.isEmpty()) {
-            recentEntries.removeFirst();
+        // Ensure the recent entries respect the new cache size immediately
+        while (liveEntries > this.cacheSize) {
+            removeOldest();
         }
     }
 
@@ -73,7 +230,10 @@ public class TerritoryCache {
      * Clears all entries from the cache.
      */
     public void clear() {
-        recentEntries.clear();
+        Arrays.fill(lastShown, ABSENT);
+        liveEntries = 0;
+        queueHead = 0;
+        queueSize = 0;
     }
 
     /**
@@ -82,7 +242,7 @@ public class TerritoryCache {
      * @return The number of cached entries
      */
     public int size() {
-        return recentEntries.size();
+        return liveEntries;
     }
 
     /**
@@ -93,4 +253,95 @@ public class TerritoryCache {
     public int getCacheSize() {
         return cacheSize;
     }
-}
\ No newline at end of file
+
+    private void expire() {
+        // Nothing older than the longest cooldown can still suppress a title
+        while (queueSize > 0) {
+            int slot = queueHead & (queueIds.length - 1);
+            boolean stale = isStale(slot);
+            if (!stale && currentTick - queueTicks[slot] < maxCooldown) return;
+
+            // Only drop the head record, the next live one may not have expired yet
+            queueHead = (queueHead + 1) & (queueIds.length - 1);
+            queueSize--;
+            if (!stale) {
+                lastShown[queueIds[slot]] = ABSENT;
+                liveEntries--;
+            }
+        }
+    }
+
+    private void removeOldest() {
+        while (queueSize > 0) {
+            int slot = queueHead & (queueIds.length - 1);
+            boolean stale = isStale(slot);
+            queueHead = (queueHead + 1) & (queueIds.length - 1);
+            queueSize--;
+            if (!stale) {
+                lastShown[queueIds[slot]] = ABSENT;
+                liveEntries--;
+                return;
+            }
+        }
+    }
+
+    private boolean isStale(int slot) {
+        return lastShown[queueIds[slot]] != queueTicks[slot];
+    }
+
+    private void enqueue(int id, long tick) {
+        if (queueSize == queueIds.length) {
+            growQueue();
+        }
+        int slot = (queueHead + queueSize) & (queueIds.length - 1);
+        queueIds[slot] = id;
+        queueTicks[slot] = tick;
+        queueSize++;
+    }
+
+    private void growQueue() {
+        int[] ids = new int[queueIds.length * 2];
+        long[] ticks = new long[queueTicks.length * 2];
+        for (int i = 0; i < queueSize; i++) {
+            int slot = (queueHead + i) & (queueIds.length - 1);
+            ids[i] = queueIds[slot];
+            ticks[i] = queueTicks[slot];
+        }
+        queueIds = ids;
+        queueTicks = ticks;
+        queueHead = 0;
+    }
+
+    private void compactQueue() {
+        int kept = 0;
+        for (int i = 0; i < queueSize; i++) {
+            int slot = (queueHead + i) & (queueIds.length - 1);
+            if (isStale(slot)) continue;
+
+            // Kept records only move towards the head, so they never overwrite unread ones
+            int target = (queueHead + kept) & (queueIds.length - 1);
+            queueIds[target] = queueIds[slot];
+            queueTicks[target] = queueTicks[slot];
+            kept++;
+        }
+        queueSize = kept;
+    }
+
+    private void ensureIdCapacity(int id) {
+        if (id < lastShown.length) return;
+
+        int newLength = Math.max(id + 1, Math.max(64, lastShown.length * 2));
+        int oldLength = lastShown.length;
+        lastShown = Arrays.copyOf(lastShown, newLength);
+        Arrays.fill(lastShown, oldLength, newLength, ABSENT);
+        cooldownOverrides = Arrays.copyOf(cooldownOverrides, newLength);
+    }
+
+    private void updateMaxCooldown() {
+        int max = defaultCooldown;
+        for (int override : cooldownOverrides) {
+            max = Math.max(max, override);
+        }
+        this.maxCooldown = max;
+    }
+}
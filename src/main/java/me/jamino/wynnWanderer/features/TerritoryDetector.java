@@ -0,0 +1,316 @@
+package me.jamino.wynnWanderer.features;
+
+import net.minecraft.util.math.MathHelper;
+
+import java.util.Objects;
+
+/**
+ * The client-independent part of territory detection: when to check, when a check can be
+ * skipped, which transition a lookup result means and whether it earns a title.
+ *
+ * <p>{@link TerritoryTitleCore} drives it from the client tick, and the trace replay harness drives
+ * it from recorded movement, so both make exactly the same decisions. Not thread-safe; all
+ * methods must be called from the thread driving the ticks.</p>
+ */
+public class TerritoryDetector {
+    // Fraction of the predicted time-to-border to wait, leaves headroom for acceleration
+    private static final double CHECK_SAFETY_FACTOR = 0.5;
+    // Horizontal movement per tick below which the player counts as standing still
+    private static final double IDLE_SPEED = 0.01;
+    // On-screen priority when no title is showing, below any real priority
+    public static final int NO_TITLE = Integer.MIN_VALUE;
+
+    /**
+     * Whether a newly entered territory should get a title, and if not, why.
+     */
+    public enum TitleDecision {
+        SHOW,
+        COOLDOWN,
+        NOT_SIGNIFICANT,
+        PRIORITY
+    }
+
+    private int ticksSinceCheck = 0;
+    // Tick count since the last check by which the next check must run, set by the border look-ahead
+    private int checkDeadline = Integer.MAX_VALUE;
+
+    // Containment fast path: the block the last lookup ran at and the bounds of the territory it found
+    private boolean hasResolvedPosition = false;
+    private int resolvedBlockX;
+    private int resolvedBlockZ;
+    private boolean hasResolvedBounds = false;
+    private int resolvedMinX;
+    private int resolvedMinZ;
+    private int resolvedMaxX;
+    private int resolvedMaxZ;
+    // Scratch bounds for the zone-free area around the player, inclusive
+    private final int[] freeBounds = new int[4];
+
+    // Adaptive check scheduling based on movement since the previous tick
+    private boolean hasLastTickPosition = false;
+    private double lastTickX;
+    private double lastTickZ;
+
+    // Named territory the player is in, and the one before the last transition
+    private TerritoryArea currentTerritory = null;
+    private TerritoryArea previousTerritory = null;
+
+    // Deepest sub-zone the player is in, and the zone level entered by the last update within a territory
+    private SubZone currentZone = null;
+    private SubZone enteredZone = null;
+
+    /**
+     * Advances the check timer by one tick.
+     * The interval adapts to movement and distance to the nearest border.
+     *
+     * @param settings The current settings
+     * @param x        The player's current x coordinate
+     * @param z        The player's current z coordinate
+     * @return true if a territory check is due this tick
+     */
+    public boolean tick(TitleSettings settings, double x, double z) {
+        ticksSinceCheck++;
+        if (ticksSinceCheck < Math.min(nextCheckInterval(settings, x, z), checkDeadline)) return false;
+
+        // Keep a requested check that is still ahead, relative to this one
+        checkDeadline = checkDeadline == Integer.MAX_VALUE || checkDeadline <= ticksSinceCheck
+                ? Integer.MAX_VALUE : checkDeadline - ticksSinceCheck;
+        ticksSinceCheck = 0;
+        return true;
+    }
+
+    /**
+     * Makes sure a check runs within the given number of ticks, e.g. on the tick
+     * a border crossing is predicted. Never delays a check that is already due sooner.
+     *
+     * @param ticks Ticks of movement from now, 0 for the upcoming call to {@link #tick}
+     */
+    public void checkWithin(int ticks) {
+        checkDeadline = Math.min(checkDeadline, ticksSinceCheck + 1 + Math.max(0, ticks));
+    }
+
+    /**
+     * Predicts how many ticks may pass before the next territory check.
+     * Checks every tick when a border crossing is imminent and backs off to the
+     * maximum interval while the player is idle.
+     *
+     * @param settings The current settings
+     * @param x The player's current x coordinate
+     * @param z The player's current z coordinate
+     * @return The number of ticks between the last check and the next one
+     */
+    private int nextCheckInterval(TitleSettings settings, double x, double z) {
+        double dx = x - lastTickX;
+        double dz = z - lastTickZ;
+        boolean hadLastTickPosition = hasLastTickPosition;
+        lastTickX = x;
+        lastTickZ = z;
+        hasLastTickPosition = true;
+
+        // Nothing to predict from yet
+        if (!hadLastTickPosition || !hasResolvedPosition) return settings.minCheckInterval;
+
+        double speed = Math.sqrt(dx * dx + dz * dz);
+        if (speed < IDLE_SPEED) return settings.maxCheckInterval;
+
+        // Outside any territory the next border could be anywhere, so treat it as adjacent
+        double edgeDistance = 0;
+        if (hasResolvedBounds) {
+            edgeDistance = Math.max(0, Math.min(
+                    Math.min(x - resolvedMinX, resolvedMaxX - x),
+                    Math.min(z - resolvedMinZ, resolvedMaxZ - z)));
+        }
+
+        double ticksToEdge = edgeDistance / speed * CHECK_SAFETY_FACTOR;
+        return (int) MathHelper.clamp(ticksToEdge, settings.minCheckInterval, settings.maxCheckInterval);
+    }
+
+    /**
+     * Checks whether a block is still covered by the last resolved lookup, either because
+     * the player has not changed block or because it lies inside the cached territory bounds.
+     * The max edges are exclusive so every position within the block is inside the territory.
+     */
+    public boolean isStillResolved(int blockX, int blockZ) {
+        if (!hasResolvedPosition) return false;
+        if (blockX == resolvedBlockX && blockZ == resolvedBlockZ) return true;
+        return hasResolvedBounds
+                && blockX >= resolvedMinX && blockX < resolvedMaxX
+                && blockZ >= resolvedMinZ && blockZ < resolvedMaxZ;
+    }
+
+    /**
+     * @return Whether a lookup has run since the last {@link #invalidate()}
+     */
+    public boolean isResolved() {
+        return hasResolvedPosition;
+    }
+
+    /**
+     * Forces the next check to do a full territory lookup.
+     */
+    public void invalidate() {
+        hasResolvedPosition = false;
+        hasResolvedBounds = false;
+    }
+
+    /**
+     * Forgets the current territory as well as the cached lookup.
+     */
+    public void reset() {
+        currentTerritory = null;
+        previousTerritory = null;
+        currentZone = null;
+        enteredZone = null;
+        invalidate();
+    }
+
+    /**
+     * Applies a lookup result: caches the position and territory bounds for the fast path
+     * and detects whether the player changed territory.
+     *
+     * @param sample   The sampled position the lookup ran at
+     * @param index    The index the lookup ran against
+     * @param position The territory's position in the index, or -1 if none contains the sample
+     * @return true if the player's territory changed, see {@link #getCurrentTerritory()}
+     */
+    public boolean update(PositionSample sample, TerritoryIndex<TerritoryArea> index, int position) {
+        return update(sample, index, position, null, -1);
+    }
+
+    /**
+     * Applies a lookup result that includes the territory's sub-zones. Besides detecting territory
+     * changes, tracks the deepest zone and which level of the zone hierarchy changed, see {@link #getEnteredZone()}.
+     *
+     * @param sample       The sampled position the lookup ran at
+     * @param index        The index the lookup ran against
+     * @param position     The territory's position in the index, or -1 if none contains the sample
+     * @param zones        The territory's zones, or null if it has none
+     * @param zonePosition The deepest zone's position in the zone index, or -1 if none contains the sample
+     * @return true if the player's territory changed, see {@link #getCurrentTerritory()}
+     */
+    public boolean update(PositionSample sample, TerritoryIndex<TerritoryArea> index, int position,
+                          SubZoneIndex zones, int zonePosition) {
+        hasResolvedPosition = true;
+        resolvedBlockX = sample.blockX();
+        resolvedBlockZ = sample.blockZ();
+        hasResolvedBounds = position >= 0;
+        if (hasResolvedBounds) {
+            resolvedMinX = index.minX(position);
+            resolvedMinZ = index.minZ(position);
+            resolvedMaxX = index.maxX(position);
+            resolvedMaxZ = index.maxZ(position);
+            if (zones != null && zonePosition >= 0) {
+                // The result only stays the same inside a zone no other zone overlaps at its level or below,
+                // elsewhere any block may lie in another zone
+                hasResolvedBounds = zones.ownsBounds(zonePosition);
+                if (hasResolvedBounds) {
+                    resolvedMinX = Math.max(resolvedMinX, zones.minX(zonePosition));
+                    resolvedMinZ = Math.max(resolvedMinZ, zones.minZ(zonePosition));
+                    resolvedMaxX = Math.min(resolvedMaxX, zones.maxX(zonePosition));
+                    resolvedMaxZ = Math.min(resolvedMaxZ, zones.maxZ(zonePosition));
+                }
+            } else if (zones != null) {
+                // Outside all zones, keep the part of the territory around the block that no zone touches
+                freeBounds[0] = resolvedMinX;
+                freeBounds[1] = resolvedMinZ;
+                freeBounds[2] = resolvedMaxX - 1;
+                freeBounds[3] = resolvedMaxZ - 1;
+                hasResolvedBounds = zones.freeBounds(sample.blockX(), sample.blockZ(), freeBounds);
+                if (hasResolvedBounds) {
+                    resolvedMinX = freeBounds[0];
+                    resolvedMinZ = freeBounds[1];
+                    resolvedMaxX = freeBounds[2] + 1;
+                    resolvedMaxZ = freeBounds[3] + 1;
+                }
+            }
+        }
+
+        // Territories without a friendly name count as being outside any territory
+        TerritoryArea territory = position < 0 ? null : index.valueAt(position);
+        if (territory != null && !territory.hasName()) {
+            territory = null;
+        }
+        SubZone zone = territory == null || zones == null || zonePosition < 0 ? null : zones.valueAt(zonePosition);
+
+        if (Objects.equals(territory, currentTerritory)) {
+            // Within a territory only the changed level of the zone hierarchy counts
+            enteredZone = SubZone.changedLevel(currentZone, zone);
+            currentZone = zone;
+            return false;
+        }
+
+        // A territory change takes precedence over any zone inside it
+        enteredZone = null;
+        currentZone = zone;
+        previousTerritory = currentTerritory;
+        currentTerritory = territory;
+        return true;
+    }
+
+    /**
+     * @return The named territory the player is in, or null
+     */
+    public TerritoryArea getCurrentTerritory() {
+        return currentTerritory;
+    }
+
+    /**
+     * @return The territory the player was in before the last transition, or null
+     */
+    public TerritoryArea getPreviousTerritory() {
+        return previousTerritory;
+    }
+
+    /**
+     * @return The deepest sub-zone the player is in, or null
+     */
+    public SubZone getCurrentZone() {
+        return currentZone;
+    }
+
+    /**
+     * Gets the sub-zone whose title the last update earned: the shallowest level of the zone
+     * hierarchy that changed while the player stayed in the same territory.
+     *
+     * @return The entered zone, or null if the last update entered none
+     */
+    public SubZone getEnteredZone() {
+        return enteredZone;
+    }
+
+    /**
+     * Decides whether a newly entered territory gets a title. The client and the trace replay both
+     * decide through here, only where the on-screen priority comes from differs.
+     *
+     * @param territory        The entered territory
+     * @param settings         The current settings
+     * @param cache            The cache of recently shown territories
+     * @param onScreenPriority The priority of the title still on screen, or {@link #NO_TITLE}
+     * @return The decision
+     */
+    public static TitleDecision decideTitle(TerritoryArea territory, TitleSettings settings, TerritoryCache cache,
+                                            int onScreenPriority) {
+        // Skip if the territory's title was shown recently and its cooldown is still active
+        if (cache.isCoolingDown(territory.id())) return TitleDecision.COOLDOWN;
+
+        // Skip non-significant territories if the showOnlySignificantTerritories option is enabled
+        if (settings.showOnlySignificantTerritories && !SignificantTerritoryManager.isSignificant(territory.id())) {
+            return TitleDecision.NOT_SIGNIFICANT;
+        }
+
+        // Don't interrupt a higher priority title that is still on screen
+        if (titlePriority(territory) < onScreenPriority) return TitleDecision.PRIORITY;
+        return TitleDecision.SHOW;
+    }
+
+    /**
+     * Gets the priority a territory's title is shown with.
+     *
+     * @param territory The territory
+     * @return The priority from the significant territory registry, 0 for other territories
+     */
+    public static int titlePriority(TerritoryArea territory) {
+        TerritoryStyle style = SignificantTerritoryManager.getStyle(territory.id());
+        return style == null ? 0 : style.priority();
+    }
+}
@@ -0,0 +1,84 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * A territory transition or title, passed to {@link TerritoryEvents} listeners.
+ *
+ * <p>Events delivered on the client thread are reused between dispatches, so listeners must
+ * not keep a reference after returning; call {@link #copy()} to hold on to one. Events
+ * delivered to async listeners are already private copies.</p>
+ */
+public final class TerritoryEvent {
+    private TerritoryArea from;
+    private TerritoryArea to;
+    private TerritoryTitle title;
+    private double x;
+    private double z;
+
+    TerritoryEvent() {
+    }
+
+    private TerritoryEvent(TerritoryEvent other) {
+        set(other.from, other.to, other.title, other.x, other.z);
+    }
+
+    TerritoryEvent set(TerritoryArea from, TerritoryArea to, TerritoryTitle title, double x, double z) {
+        this.from = from;
+        this.to = to;
+        this.title = title;
+        this.x = x;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Gets the territory the player was in before this event.
+     * For {@link TerritoryEvents#LEAVE} this is the territory being left.
+     *
+     * @return The previous territory, or null if the player was outside any territory
+     */
+    public TerritoryArea getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the territory the player is in after this event.
+     * For {@link TerritoryEvents#ENTER} and {@link TerritoryEvents#TITLE_SHOWN} this is never null.
+     *
+     * @return The current territory, or null if the player is now outside any territory
+     */
+    public TerritoryArea getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the title that was shown, only set for {@link TerritoryEvents#TITLE_SHOWN}.
+     *
+     * @return The title, or null
+     */
+    public TerritoryTitle getTitle() {
+        return title;
+    }
+
+    /**
+     * @return The player's x coordinate when the transition was detected
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return The player's z coordinate when the transition was detected
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Creates a copy that is safe to keep after the listener returns.
+     *
+     * @return A new event with the same values
+     */
+    public TerritoryEvent copy() {
+        return new TerritoryEvent(this);
+    }
+}
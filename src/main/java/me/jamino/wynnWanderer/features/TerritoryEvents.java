@@ -0,0 +1,124 @@
+package me.jamino.wynnWanderer.features;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Territory transition events, fired on the client thread whenever the player's territory changes.
+ *
+ * <p>Listeners are stored in copy-on-write arrays by Fabric's array-backed events, and each event
+ * type reuses a single {@link TerritoryEvent}, so dispatching allocates nothing. Listeners that do
+ * slow work such as I/O should be wrapped with {@link #async(Listener)} so they can't stall the tick:</p>
+ *
+ * <pre>{@code
+ * TerritoryEvents.ENTER.register(event -> playSound(event.getTo()));
+ * TerritoryEvents.TITLE_SHOWN.register(TerritoryEvents.async(event -> writeLog(event)));
+ * }</pre>
+ */
+public final class TerritoryEvents {
+    // Async deliveries waiting beyond this many are dropped oldest first
+    private static final int ASYNC_QUEUE_CAPACITY = 256;
+
+    /**
+     * Fired when the player enters a named territory, after the matching {@link #LEAVE}.
+     */
+    public static final Event<Listener> ENTER = createEvent();
+
+    /**
+     * Fired when the player leaves a territory, either into another one or into unclaimed land.
+     */
+    public static final Event<Listener> LEAVE = createEvent();
+
+    /**
+     * Fired after a territory's title has started showing. Not fired for territories whose
+     * title was suppressed by a cooldown, a higher priority title or the significance filter.
+     */
+    public static final Event<Listener> TITLE_SHOWN = createEvent();
+
+    // Reused for every dispatch of the matching event, only touched on the client thread
+    private static final TerritoryEvent ENTER_EVENT = new TerritoryEvent();
+    private static final TerritoryEvent LEAVE_EVENT = new TerritoryEvent();
+    private static final TerritoryEvent TITLE_SHOWN_EVENT = new TerritoryEvent();
+
+    // Created on first use so the thread only exists when an async listener is registered
+    private static ExecutorService asyncExecutor;
+
+    private TerritoryEvents() {
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Handles a territory event.
+         *
+         * @param event The event, reused after this call returns unless delivered asynchronously
+         */
+        void onTerritoryEvent(TerritoryEvent event);
+    }
+
+    /**
+     * Wraps a listener so it runs on a background thread. Each delivery copies the event,
+     * and deliveries are dropped oldest first if the listener falls far behind.
+     *
+     * @param listener The listener to run off the client thread
+     * @return A listener to register with one of the events
+     */
+    public static Listener async(Listener listener) {
+        return event -> {
+            TerritoryEvent copy = event.copy();
+            getAsyncExecutor().execute(() -> {
+                try {
+                    listener.onTerritoryEvent(copy);
+                } catch (Exception e) {
+                    ErrorReporter.report(Feature.TERRITORY_EVENTS, "Error in async territory event listener", e);
+                }
+            });
+        };
+    }
+
+    static void fireLeave(TerritoryArea from, TerritoryArea to, double x, double z) {
+        LEAVE.invoker().onTerritoryEvent(LEAVE_EVENT.set(from, to, null, x, z));
+    }
+
+    static void fireEnter(TerritoryArea from, TerritoryArea to, double x, double z) {
+        ENTER.invoker().onTerritoryEvent(ENTER_EVENT.set(from, to, null, x, z));
+    }
+
+    static void fireTitleShown(TerritoryArea from, TerritoryArea to, TerritoryTitle title, double x, double z) {
+        TITLE_SHOWN.invoker().onTerritoryEvent(TITLE_SHOWN_EVENT.set(from, to, title, x, z));
+    }
+
+    private static Event<Listener> createEvent() {
+        return EventFactory.createArrayBacked(Listener.class, listeners -> event -> {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onTerritoryEvent(event);
+                } catch (Exception e) {
+                    // One failing listener must not keep the others or the title from running
+                    ErrorReporter.report(Feature.TERRITORY_EVENTS, "Error in territory event listener", e);
+                }
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "wynn-wanderer-events");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.DiscardOldestPolicy());
+        }
+        return asyncExecutor;
+    }
+}
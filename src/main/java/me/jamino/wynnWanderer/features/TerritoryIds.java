@@ -0,0 +1,92 @@
+package me.jamino.wynnWanderer.features;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns territory names to dense int IDs.
+ * IDs are stable for the whole session, so caches can key on them across
+ * Wynntils data refreshes without holding on to territory instances.
+ */
+public final class TerritoryIds {
+    private static final Map<String, Integer> IDS = new HashMap<>();
+    private static volatile String[] names = new String[64];
+    // Most recently indexed territory for each ID
+    private static volatile TerritoryArea[] areas = new TerritoryArea[64];
+    private static int count = 0;
+
+    private TerritoryIds() {
+    }
+
+    /**
+     * Gets the ID for a territory name, assigning the next free one if the name is new.
+     *
+     * @param name The territory name
+     * @return The territory's ID
+     */
+    public static synchronized int intern(String name) {
+        Integer existing = IDS.get(name);
+        if (existing != null) return existing;
+
+        int id = count++;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+            areas = Arrays.copyOf(areas, id * 2);
+        }
+        names[id] = name;
+        IDS.put(name, id);
+        return id;
+    }
+
+    /**
+     * Gets the ID for a territory name without assigning one.
+     *
+     * @param name The territory name
+     * @return The territory's ID, or -1 if the name has not been interned
+     */
+    public static synchronized int find(String name) {
+        Integer existing = IDS.get(name);
+        return existing == null ? -1 : existing;
+    }
+
+    /**
+     * Records the current territory for its ID, replacing the one from an older data set.
+     *
+     * @param area The territory as currently indexed
+     */
+    public static synchronized void update(TerritoryArea area) {
+        areas[area.id()] = area;
+    }
+
+    /**
+     * Gets the name an ID was assigned to.
+     *
+     * @param id The territory ID
+     * @return The territory name, or null if the ID was never assigned
+     */
+    public static String name(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Gets the most recently indexed territory for an ID.
+     *
+     * @param id The territory ID
+     * @return The territory, or null if none has been indexed
+     */
+    public static TerritoryArea area(int id) {
+        TerritoryArea[] current = areas;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Gets the number of IDs assigned so far. All IDs are below this value.
+     *
+     * @return The number of interned names
+     */
+    public static synchronized int count() {
+        return count;
+    }
+}
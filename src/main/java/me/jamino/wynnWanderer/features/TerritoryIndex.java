@@ -0,0 +1,248 @@
+package me.jamino.wynnWanderer.features;
+
+import java.util.Arrays;
+
+/**
+ * Immutable uniform grid over territory rectangles.
+ * A point lookup only tests the territories overlapping the grid cell
+ * the point falls into instead of scanning every territory's bounds.
+ *
+ * @param <T> The value stored for each territory
+ */
+public final class TerritoryIndex<T> {
+    // Upper bound on grid cells relative to the number of territories, keeps memory linear
+    private static final int MAX_CELLS_PER_ENTRY = 8;
+    private static final int MIN_CELL_SHIFT = 4; // 16 blocks
+    private static final int MAX_CELL_SHIFT = 16;
+
+    private static final TerritoryIndex<?> EMPTY = new Builder<>().build();
+
+    // Territory bounds, inclusive and normalized so min <= max
+    private final int[] minX;
+    private final int[] minZ;
+    private final int[] maxX;
+    private final int[] maxZ;
+    private final Object[] values;
+
+    // Grid layout: cell (column, row) covers entries cellEntries[cellStart[c] .. cellStart[c + 1])
+    private final int originX;
+    private final int originZ;
+    private final int cellShift;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellEntries;
+
+    private TerritoryIndex(int[] minX, int[] minZ, int[] maxX, int[] maxZ, Object[] values) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+        this.values = values;
+
+        int count = values.length;
+        if (count == 0) {
+            originX = originZ = 0;
+            cellShift = MIN_CELL_SHIFT;
+            columns = rows = 0;
+            cellStart = new int[1];
+            cellEntries = new int[0];
+            return;
+        }
+
+        // World extent and average territory footprint
+        int worldMinX = Integer.MAX_VALUE, worldMinZ = Integer.MAX_VALUE;
+        int worldMaxX = Integer.MIN_VALUE, worldMaxZ = Integer.MIN_VALUE;
+        double totalSide = 0;
+        for (int i = 0; i < count; i++) {
+            worldMinX = Math.min(worldMinX, minX[i]);
+            worldMinZ = Math.min(worldMinZ, minZ[i]);
+            worldMaxX = Math.max(worldMaxX, maxX[i]);
+            worldMaxZ = Math.max(worldMaxZ, maxZ[i]);
+            totalSide += Math.sqrt((double) (maxX[i] - minX[i] + 1) * (maxZ[i] - minZ[i] + 1));
+        }
+        originX = worldMinX;
+        originZ = worldMinZ;
+
+        // Cells roughly the size of an average territory, grown until the grid stays small
+        int shift = MIN_CELL_SHIFT;
+        while (shift < MAX_CELL_SHIFT && (1 << shift) < totalSide / count) {
+            shift++;
+        }
+        long maxCells = Math.max(64L, (long) count * MAX_CELLS_PER_ENTRY);
+        while (shift < MAX_CELL_SHIFT && cellCount(worldMaxX, worldMaxZ, shift) > maxCells) {
+            shift++;
+        }
+        cellShift = shift;
+        columns = ((worldMaxX - originX) >> shift) + 1;
+        rows = ((worldMaxZ - originZ) >> shift) + 1;
+
+        // Two passes: count entries per cell, then fill the compact entry array
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < count; i++) {
+            for (int row = cellRow(minZ[i]); row <= cellRow(maxZ[i]); row++) {
+                for (int column = cellColumn(minX[i]); column <= cellColumn(maxX[i]); column++) {
+                    cellStart[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellEntries = new int[cellStart[columns * rows]];
+        int[] fill = Arrays.copyOf(cellStart, columns * rows);
+        for (int i = 0; i < count; i++) {
+            for (int row = cellRow(minZ[i]); row <= cellRow(maxZ[i]); row++) {
+                for (int column = cellColumn(minX[i]); column <= cellColumn(maxX[i]); column++) {
+                    cellEntries[fill[row * columns + column]++] = i;
+                }
+            }
+        }
+    }
+
+    private long cellCount(int worldMaxX, int worldMaxZ, int shift) {
+        return (long) (((worldMaxX - originX) >> shift) + 1) * (((worldMaxZ - originZ) >> shift) + 1);
+    }
+
+    private int cellColumn(int x) {
+        return (x - originX) >> cellShift;
+    }
+
+    private int cellRow(int z) {
+        return (z - originZ) >> cellShift;
+    }
+
+    /**
+     * Gets an index containing no territories.
+     *
+     * @return The shared empty index
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TerritoryIndex<T> empty() {
+        return (TerritoryIndex<T>) EMPTY;
+    }
+
+    /**
+     * Finds the position of the territory containing the given point.
+     *
+     * @param x The x coordinate
+     * @param z The z coordinate
+     * @return The territory's position in this index, or -1 if no territory contains the point
+     */
+    public int find(double x, double z) {
+        if (columns == 0) return -1;
+
+        // Compare in cell space first so far-away points never overflow the int math
+        double localX = Math.floor(x) - originX;
+        double localZ = Math.floor(z) - originZ;
+        if (localX < 0 || localZ < 0) return -1;
+        if (localX >= (double) columns * (1 << cellShift) || localZ >= (double) rows * (1 << cellShift)) return -1;
+
+        int cell = ((int) localZ >> cellShift) * columns + ((int) localX >> cellShift);
+        for (int e = cellStart[cell], end = cellStart[cell + 1]; e < end; e++) {
+            int i = cellEntries[e];
+            if (x >= minX[i] && x <= maxX[i] && z >= minZ[i] && z <= maxZ[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the territory containing the given point.
+     *
+     * @param x The x coordinate
+     * @param z The z coordinate
+     * @return The territory value, or null if no territory contains the point
+     */
+    public T get(double x, double z) {
+        int i = find(x, z);
+        return i < 0 ? null : valueAt(i);
+    }
+
+    /**
+     * Gets the value stored at a position in this index.
+     *
+     * @param i The territory's position, as returned by {@link #find(double, double)}
+     * @return The territory value
+     */
+    @SuppressWarnings("unchecked")
+    public T valueAt(int i) {
+        return (T) values[i];
+    }
+
+    public int minX(int i) {
+        return minX[i];
+    }
+
+    public int minZ(int i) {
+        return minZ[i];
+    }
+
+    public int maxX(int i) {
+        return maxX[i];
+    }
+
+    public int maxZ(int i) {
+        return maxZ[i];
+    }
+
+    /**
+     * Gets the number of territories in this index.
+     *
+     * @return The territory count
+     */
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Collects territory rectangles and builds the grid once all of them are known.
+     *
+     * @param <T> The value stored for each territory
+     */
+    public static final class Builder<T> {
+        private int[] minX = new int[16];
+        private int[] minZ = new int[16];
+        private int[] maxX = new int[16];
+        private int[] maxZ = new int[16];
+        private Object[] values = new Object[16];
+        private int count = 0;
+
+        /**
+         * Adds a territory. Corners may be given in any order; bounds are inclusive.
+         *
+         * @return This builder
+         */
+        public Builder<T> add(int x1, int z1, int x2, int z2, T value) {
+            if (count == values.length) {
+                int newLength = count * 2;
+                minX = Arrays.copyOf(minX, newLength);
+                minZ = Arrays.copyOf(minZ, newLength);
+                maxX = Arrays.copyOf(maxX, newLength);
+                maxZ = Arrays.copyOf(maxZ, newLength);
+                values = Arrays.copyOf(values, newLength);
+            }
+            minX[count] = Math.min(x1, x2);
+            minZ[count] = Math.min(z1, z2);
+            maxX[count] = Math.max(x1, x2);
+            maxZ[count] = Math.max(z1, z2);
+            values[count] = value;
+            count++;
+            return this;
+        }
+
+        public TerritoryIndex<T> build() {
+            return new TerritoryIndex<>(
+                    Arrays.copyOf(minX, count),
+                    Arrays.copyOf(minZ, count),
+                    Arrays.copyOf(maxX, count),
+                    Arrays.copyOf(maxZ, count),
+                    Arrays.copyOf(values, count));
+        }
+    }
+}
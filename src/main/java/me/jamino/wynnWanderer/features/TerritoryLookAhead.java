@@ -0,0 +1,95 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Projects the player's heading and speed forward to find the next territory along the way
+ * and estimate how many ticks remain until its border is crossed.
+ *
+ * <p>Like {@link TerritoryDetector} it is independent of the client, so the trace replay can
+ * drive it as well. Not thread-safe; all methods must be called from the thread driving the ticks.</p>
+ */
+public class TerritoryLookAhead {
+    // Weight of the newest tick's movement in the smoothed velocity, damps strafing and jitter
+    private static final double VELOCITY_SMOOTHING = 0.5;
+    // Horizontal movement per tick below which there is no heading to project
+    private static final double MIN_SPEED = 0.05;
+    // Movement per tick beyond which the player is assumed to have teleported, squared
+    private static final double TELEPORT_DISTANCE_SQUARED = 16 * 16;
+
+    private final TerritoryBorderIndex.Hit hit = new TerritoryBorderIndex.Hit();
+
+    private boolean hasLastPosition = false;
+    private double lastX;
+    private double lastZ;
+    private double velocityX = 0;
+    private double velocityZ = 0;
+
+    // Latest prediction
+    private TerritoryArea upcomingTerritory = null;
+    private int ticksToBorder = -1;
+
+    /**
+     * Updates the heading from the player's movement and looks for the next territory along it.
+     *
+     * @param borders      The border index for the current territory index
+     * @param index        The current territory index
+     * @param x            The player's current x coordinate
+     * @param z            The player's current z coordinate
+     * @param horizonTicks How many ticks ahead to look
+     * @return true if a territory border lies ahead within the horizon, see {@link #getUpcomingTerritory()}
+     */
+    public boolean tick(TerritoryBorderIndex borders, TerritoryIndex<TerritoryArea> index,
+                        double x, double z, int horizonTicks) {
+        if (hasLastPosition) {
+            double dx = x - lastX;
+            double dz = z - lastZ;
+            if (dx * dx + dz * dz > TELEPORT_DISTANCE_SQUARED) {
+                // A teleport says nothing about where the player is heading
+                velocityX = 0;
+                velocityZ = 0;
+            } else {
+                velocityX += (dx - velocityX) * VELOCITY_SMOOTHING;
+                velocityZ += (dz - velocityZ) * VELOCITY_SMOOTHING;
+            }
+        }
+        lastX = x;
+        lastZ = z;
+        hasLastPosition = true;
+
+        upcomingTerritory = null;
+        ticksToBorder = -1;
+
+        double speed = Math.sqrt(velocityX * velocityX + velocityZ * velocityZ);
+        if (speed < MIN_SPEED || horizonTicks <= 0) return false;
+
+        if (!borders.raycast(x, z, velocityX / speed, velocityZ / speed, speed * horizonTicks, hit)) return false;
+
+        upcomingTerritory = index.valueAt(hit.position());
+        ticksToBorder = Math.max(1, (int) Math.ceil(hit.distance() / speed));
+        return true;
+    }
+
+    /**
+     * Forgets the heading, e.g. after a teleport or world change.
+     */
+    public void reset() {
+        hasLastPosition = false;
+        velocityX = 0;
+        velocityZ = 0;
+        upcomingTerritory = null;
+        ticksToBorder = -1;
+    }
+
+    /**
+     * @return The territory whose border lies ahead, or null if none was found on the last tick
+     */
+    public TerritoryArea getUpcomingTerritory() {
+        return upcomingTerritory;
+    }
+
+    /**
+     * @return Estimated ticks until the border ahead is crossed, or -1 if none was found
+     */
+    public int getTicksToBorder() {
+        return ticksToBorder;
+    }
+}
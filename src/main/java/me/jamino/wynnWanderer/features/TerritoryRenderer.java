@@ -1,113 +1,148 @@
 package me.jamino.wynnWanderer.features;
 
 import com.mojang.blaze3d.systems.RenderSystem;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.text.Text;
-import net.minecraft.util.math.MathHelper;
 
 public class TerritoryRenderer {
-    // Title renderer state
-    public Text displayedTitle = null;
-    public Text displayedSubTitle = null;
-    public int titleTimer = 0;
-    public int cooldownTimer = 0;
-    public int titleTextColor = 0xFFFFFF;
-
-    // Configuration properties (public so TerritoryTitleCore can access them directly)
-    public boolean enabled = true;
-    public int textFadeInTime = 10;
-    public int textDisplayTime = 50;
-    public int textFadeOutTime = 10;
-    public int textCooldownTime = 80;
-    public String textColor = "ffffff";
-    public double textSize = 2.1;
-    public boolean renderShadow = true;
-    public int textYOffset = -40; // Updated default to move title up
-    public int textXOffset = 0;
-    public boolean centerText = true;
-
-    // Subtitle positioning properties
-    public int subtitleYOffset = -20;
-    public int subtitleXOffset = 0;
-    public double subtitleSize = 1.3;
-    public boolean showSubtitles = true; // New property for subtitle toggle
-
-    // Significant territory settings
-    public boolean useEnhancedStyling = true;
-    public double titleSizeMultiplier = 1.2;
-    public double subtitleSizeMultiplier = 1.1;
-    public boolean useCustomColors = true;
-    public String defaultSignificantColor = "ffcc00";
-
-    // Current rendering mode flag
-    private boolean isRenderingSignificantTerritory = false;
+    // Title currently on screen, null when nothing is showing
+    private TerritoryTitle displayedTitle = null;
+
+    // Layout of the current title, reused across frames
+    private TitleLayout layout = null;
+
+    // Pre-rendered title and subtitle, drawn as one quad while the title fades
+    private final TitleComposite composite = new TitleComposite();
+    // Set once composing has failed, the text is drawn directly from then on
+    private boolean compositeFailed = false;
+
+    // Fade timeline of the current title, and the settings it was configured from
+    private final TitleAnimation animation = new TitleAnimation();
+    private TitleSettings animationSettings = null;
+    // How far the slide effect moves the title, in scaled pixels, and the scale effect's starting size
+    private static final float SLIDE_DISTANCE = 12.0F;
+    private static final float SCALE_FROM = 0.8F;
+
+    // "Approaching" hint for the territory ahead, only drawn while no title is on screen
+    private Text hint = null;
+    private static final int HINT_ALPHA = 0xB0 << 24;
 
     /**
-     * Sets the color of text to render
+     * Parses a hexadecimal color string, falling back to white if it is invalid
      *
      * @param textColor Hexadecimal string representation of the color
+     * @return The color as packed RGB
      */
-    public void setColor(String textColor) {
+    public static int parseColor(String textColor) {
         try {
             // Ensure the color string is treated as hexadecimal
-            this.titleTextColor = Integer.parseInt(textColor.replace("#", ""), 16);
+            return Integer.parseInt(textColor.replace("#", ""), 16);
         } catch (Exception e) {
-            System.err.println("Text color '" + textColor + "' is not a valid hex color (e.g., 'ffffff'). Defaulting to white...");
-            this.titleTextColor = 0xFFFFFF; // Default to white
+            ErrorReporter.warn(Feature.CONFIG, "Text color '" + textColor + "' is not a valid hex color (e.g., 'ffffff'). Defaulting to white...");
+            return 0xFFFFFF; // Default to white
         }
     }
 
     /**
-     * Sets whether the current rendering is for a significant territory
+     * Checks whether a title with the given priority may replace the title currently on screen
+     *
+     * @param priority The new title's priority
+     * @return true if no title is showing or the current one does not have a higher priority
      */
-    public void setSignificantTerritoryMode(boolean isSignificant) {
-        this.isRenderingSignificantTerritory = isSignificant;
+    public boolean canReplaceTitle(int priority) {
+        return priority >= getDisplayedPriority();
+    }
+
+    /**
+     * Gets the priority of the title currently on screen
+     *
+     * @return The title's priority, or {@link TerritoryDetector#NO_TITLE} if no title is showing
+     */
+    public int getDisplayedPriority() {
+        return displayedTitle == null || !animation.isRunning(System.nanoTime())
+                ? TerritoryDetector.NO_TITLE : displayedTitle.priority();
+    }
+
+    /**
+     * Starts showing a title, replacing the current one
+     *
+     * @param title    The title to show
+     * @param settings The settings to animate it with
+     */
+    public void showTitle(TerritoryTitle title, TitleSettings settings) {
+        configureAnimation(settings);
+        displayedTitle = title;
+        animation.start(System.nanoTime());
+        invalidateLayout();
+    }
+
+    /**
+     * Gets the title currently on screen
+     *
+     * @return The title, or null if none is showing
+     */
+    public TerritoryTitle getDisplayedTitle() {
+        return displayedTitle;
+    }
+
+    private void configureAnimation(TitleSettings settings) {
+        if (settings == animationSettings) return;
+        animation.configure(settings.easing, settings.fadeInTime, settings.displayTime, settings.fadeOutTime);
+        animationSettings = settings;
     }
 
     /**
      * Renders the title on screen
      *
      * @param drawContext The current draw context
-     * @param partialTicks Partial tick time for smooth animations
+     * @param settings    The settings snapshot for this frame
      */
-    public void renderTitle(DrawContext drawContext, float partialTicks) {
-        if (!enabled || displayedTitle == null || titleTimer <= 0) return;
+    public void renderTitle(DrawContext drawContext, TitleSettings settings) {
+        TerritoryTitle title = displayedTitle;
+        if (!settings.enabled || title == null) return;
 
         MinecraftClient mc = MinecraftClient.getInstance();
         // Check if debug screen is visible
         if (mc.getDebugHud().shouldShowDebugHud()) return;
 
-        // Calculate fade opacity
-        float age = (float) titleTimer - partialTicks; // Calculate remaining time precisely
-        int opacity = 255; // Default to fully opaque (during display phase)
-
-        // Fade-in phase
-        if (age > textFadeOutTime + textDisplayTime) {
-            // Calculate progress through fade-in phase
-            float fadeInProgress = (float)textFadeInTime - (age - (textDisplayTime + textFadeOutTime));
-            if (textFadeInTime > 0) { // Avoid division by zero
-                opacity = (int) (MathHelper.clamp(fadeInProgress, 0, textFadeInTime) * 255.0F / (float) textFadeInTime);
-            } else {
-                opacity = 255; // Instant fade-in if time is 0
-            }
-        }
-        // Fade-out phase
-        else if (age <= textFadeOutTime) {
-            // Calculate progress through fade-out phase (age is time remaining in fade-out)
-            if (textFadeOutTime > 0) { // Avoid division by zero
-                opacity = (int) (MathHelper.clamp(age, 0, textFadeOutTime) * 255.0F / (float) textFadeOutTime);
-            } else {
-                opacity = 0; // Instant fade-out if time is 0
-            }
-        }
-        // Display phase: opacity remains 255
+        // A config change applies its new timings to the title already on screen
+        configureAnimation(settings);
+
+        // Calculate fade opacity from the timeline, a single curve lookup
+        long now = System.nanoTime();
+        int opacity = (int) (animation.opacity(now) * 255.0F);
 
-        opacity = MathHelper.clamp(opacity, 0, 255);
         // Don't render if almost fully transparent
         if (opacity < 8) return;
 
+        // Positions and sizes only change with the title, window or settings
+        TitleLayout layout = getLayout(mc, title, settings);
+
+        // Entrance effects on top of the cached layout
+        float slideOffset = 0.0F;
+        float entranceScale = 1.0F;
+        if (settings.easing == TitleEasing.SLIDE) {
+            slideOffset = (1.0F - animation.entrance(now)) * SLIDE_DISTANCE;
+        } else if (settings.easing == TitleEasing.SCALE) {
+            entranceScale = SCALE_FROM + (1.0F - SCALE_FROM) * animation.entrance(now);
+        }
+
+        if (settings.cacheTitleComposite && !compositeFailed) {
+            try {
+                renderComposite(drawContext, mc, layout, opacity / 255.0F, slideOffset, entranceScale);
+                return;
+            } catch (RuntimeException e) {
+                // Fall back to drawing the text directly for the rest of the session
+                ErrorReporter.report(Feature.TITLE_RENDERING, "Failed to render cached title, drawing text directly instead", e);
+                compositeFailed = true;
+                composite.release();
+            }
+        }
+
         // Set up rendering state
         drawContext.getMatrices().push();
 
@@ -118,85 +153,42 @@ public class TerritoryRenderer {
 
         // --- Title Rendering ---
         drawContext.getMatrices().push();
-
-        // Center the title according to settings
-        if (centerText) {
-            // Move to center of screen, then apply offsets
-            drawContext.getMatrices().translate(
-                    mc.getWindow().getScaledWidth() / 2.0 + textXOffset,
-                    mc.getWindow().getScaledHeight() / 2.0 + textYOffset,
-                    0);
-        } else {
-            // Use direct offsets
-            drawContext.getMatrices().translate(textXOffset, textYOffset, 0);
-        }
-
-        // Apply size, with multiplier for significant territories if enabled
-        float actualTitleSize = (float)textSize;
-        if (isRenderingSignificantTerritory && useEnhancedStyling) {
-            actualTitleSize *= (float)titleSizeMultiplier;
-        }
-
-        drawContext.getMatrices().scale(actualTitleSize, actualTitleSize, actualTitleSize);
+        drawContext.getMatrices().translate(layout.titleX, layout.titleY + slideOffset, 0);
+        float titleSize = layout.titleSize * entranceScale;
+        drawContext.getMatrices().scale(titleSize, titleSize, titleSize);
 
         RenderSystem.enableBlend();
         RenderSystem.defaultBlendFunc();
 
-        int titleWidth = fontRenderer.getWidth(displayedTitle);
-
-        // Calculate x position based on centering
-        int titleXPos = centerText ? -(titleWidth / 2) : 0;
-
         // Draw title
         drawContext.drawText(
                 fontRenderer,
-                displayedTitle,
-                titleXPos,
+                title.title(),
+                layout.titleXPos,
                 0,
-                titleTextColor | alpha,
-                renderShadow);
+                title.color() | alpha,
+                settings.renderShadow);
 
         RenderSystem.disableBlend();
         drawContext.getMatrices().pop(); // Pop title transform
 
         // --- Subtitle Rendering (if exists and enabled) ---
-        if (showSubtitles && displayedSubTitle != null) {
+        if (layout.hasSubtitle) {
             drawContext.getMatrices().push();
-
-            // Subtitle has its own positioning
-            if (centerText) {
-                // Move to center of screen, then apply subtitle offsets
-                drawContext.getMatrices().translate(
-                        mc.getWindow().getScaledWidth() / 2.0 + subtitleXOffset,
-                        mc.getWindow().getScaledHeight() / 2.0 + subtitleYOffset,
-                        0);
-            } else {
-                // Use direct subtitle offsets
-                drawContext.getMatrices().translate(subtitleXOffset, subtitleYOffset, 0);
-            }
-
-            // Apply subtitle size, with multiplier for significant territories if enabled
-            float actualSubtitleSize = (float)subtitleSize;
-            if (isRenderingSignificantTerritory && useEnhancedStyling) {
-                actualSubtitleSize *= (float)subtitleSizeMultiplier;
-            }
-
-            // Use subtitle scale
-            drawContext.getMatrices().scale(actualSubtitleSize, actualSubtitleSize, actualSubtitleSize);
+            drawContext.getMatrices().translate(layout.subtitleX, layout.subtitleY + slideOffset, 0);
+            float subtitleSize = layout.subtitleSize * entranceScale;
+            drawContext.getMatrices().scale(subtitleSize, subtitleSize, subtitleSize);
 
             RenderSystem.enableBlend();
             RenderSystem.defaultBlendFunc();
 
-            int subtitleWidth = fontRenderer.getWidth(displayedSubTitle);
-            int subtitleXPos = centerText ? -(subtitleWidth / 2) : 0;
-
             drawContext.drawText(
                     fontRenderer,
-                    displayedSubTitle,
-                    subtitleXPos,
+                    title.subtitle(),
+                    layout.subtitleXPos,
                     0,
                     0xFFFFFF | alpha, // White subtitle color
-                    renderShadow);
+                    settings.renderShadow);
 
             RenderSystem.disableBlend();
             drawContext.getMatrices().pop(); // Pop subtitle transform
@@ -207,24 +199,192 @@ public class TerritoryRenderer {
     }
 
     /**
-     * Updates title and cooldown timers
+     * Renders the title from the off-screen composite, composing it first if the layout changed
      */
-    public void tick() {
-        // Tick down cooldown regardless of title display
-        if (cooldownTimer > 0) {
-            --cooldownTimer;
+    private void renderComposite(DrawContext drawContext, MinecraftClient mc, TitleLayout layout,
+                                 float alpha, float slideOffset, float entranceScale) {
+        if (!composite.isComposedFor(layout)) {
+            composite.compose(drawContext, mc, layout, layout.boundsWidth, layout.boundsHeight,
+                    context -> drawComposedText(context, mc.textRenderer, layout));
         }
 
-        // Tick down title timer only if a title is active
-        if (titleTimer > 0) {
-            --titleTimer;
-            if (titleTimer <= 0) {
-                // Only clear display variables
-                displayedTitle = null;
-                displayedSubTitle = null;
-                // Reset significant territory flag
-                isRenderingSignificantTerritory = false;
+        drawContext.getMatrices().push();
+        // Scale entrance grows the whole block from its center
+        float centerX = layout.boundsX + layout.boundsWidth / 2.0F;
+        float centerY = layout.boundsY + layout.boundsHeight / 2.0F + slideOffset;
+        drawContext.getMatrices().translate(centerX, centerY, 0);
+        drawContext.getMatrices().scale(entranceScale, entranceScale, 1.0F);
+        composite.draw(drawContext, -layout.boundsWidth / 2.0F, -layout.boundsHeight / 2.0F,
+                layout.boundsWidth, layout.boundsHeight, alpha);
+        drawContext.getMatrices().pop();
+    }
+
+    /**
+     * Draws the title and subtitle at full opacity, relative to the top left of the layout's bounds
+     */
+    private void drawComposedText(DrawContext drawContext, TextRenderer fontRenderer, TitleLayout layout) {
+        boolean shadow = layout.settings.renderShadow;
+        drawContext.getMatrices().translate(-layout.boundsX, -layout.boundsY, 0);
+
+        drawContext.getMatrices().push();
+        drawContext.getMatrices().translate(layout.titleX, layout.titleY, 0);
+        drawContext.getMatrices().scale(layout.titleSize, layout.titleSize, layout.titleSize);
+        drawContext.drawText(fontRenderer, layout.title.title(), layout.titleXPos, 0, layout.title.color() | 0xFF000000, shadow);
+        drawContext.getMatrices().pop();
+
+        if (layout.hasSubtitle) {
+            drawContext.getMatrices().push();
+            drawContext.getMatrices().translate(layout.subtitleX, layout.subtitleY, 0);
+            drawContext.getMatrices().scale(layout.subtitleSize, layout.subtitleSize, layout.subtitleSize);
+            drawContext.drawText(fontRenderer, layout.title.subtitle(), layout.subtitleXPos, 0, 0xFFFFFFFF, shadow);
+            drawContext.getMatrices().pop();
+        }
+    }
+
+    /**
+     * Gets the layout for the current title, recomputing it only if the title,
+     * the scaled window size or the settings have changed since it was computed
+     */
+    private TitleLayout getLayout(MinecraftClient mc, TerritoryTitle title, TitleSettings settings) {
+        int scaledWidth = mc.getWindow().getScaledWidth();
+        int scaledHeight = mc.getWindow().getScaledHeight();
+        TitleLayout current = layout;
+        if (current != null
+                && current.title == title
+                && current.settings == settings
+                && current.scaledWidth == scaledWidth
+                && current.scaledHeight == scaledHeight) {
+            return current;
+        }
+
+        current = new TitleLayout(mc.textRenderer, title, settings, scaledWidth, scaledHeight);
+        layout = current;
+        return current;
+    }
+
+    /**
+     * Forces the layout to be recomputed on the next frame
+     */
+    public void invalidateLayout() {
+        layout = null;
+    }
+
+    /**
+     * Screen transforms for one displayed title at one window size
+     */
+    private static final class TitleLayout {
+        final TerritoryTitle title;
+        final TitleSettings settings;
+        final int scaledWidth;
+        final int scaledHeight;
+
+        final double titleX;
+        final double titleY;
+        final float titleSize;
+        final int titleXPos;
+
+        final boolean hasSubtitle;
+        final double subtitleX;
+        final double subtitleY;
+        final float subtitleSize;
+        final int subtitleXPos;
+
+        // Area covered by both lines including shadows, in scaled pixels
+        final float boundsX;
+        final float boundsY;
+        final float boundsWidth;
+        final float boundsHeight;
+
+        TitleLayout(TextRenderer fontRenderer, TerritoryTitle title, TitleSettings settings, int scaledWidth, int scaledHeight) {
+            this.title = title;
+            this.settings = settings;
+            this.scaledWidth = scaledWidth;
+            this.scaledHeight = scaledHeight;
+
+            // Center the title according to settings: move to center of screen, then apply offsets
+            double originX = settings.centerText ? scaledWidth / 2.0 : 0;
+            double originY = settings.centerText ? scaledHeight / 2.0 : 0;
+
+            // The title carries its size, with the multiplier resolved for this territory
+            titleX = originX + settings.textXOffset;
+            titleY = originY + settings.textYOffset;
+            titleSize = title.titleSize();
+            // Calculate x position based on centering
+            titleXPos = settings.centerText ? -(fontRenderer.getWidth(title.title()) / 2) : 0;
+
+            // Subtitle has its own positioning and size
+            hasSubtitle = settings.showSubtitles && title.subtitle() != null;
+            subtitleX = originX + settings.subtitleXOffset;
+            subtitleY = originY + settings.subtitleYOffset;
+            subtitleSize = title.subtitleSize();
+            subtitleXPos = hasSubtitle && settings.centerText ? -(fontRenderer.getWidth(title.subtitle()) / 2) : 0;
+
+            // Shadows are offset by one unscaled pixel, so each line is one pixel wider and taller
+            float lineHeight = fontRenderer.fontHeight + 1;
+            float left = (float) titleX + titleXPos * titleSize;
+            float top = (float) titleY;
+            float right = left + (fontRenderer.getWidth(title.title()) + 1) * titleSize;
+            float bottom = top + lineHeight * titleSize;
+            if (hasSubtitle) {
+                float subtitleLeft = (float) subtitleX + subtitleXPos * subtitleSize;
+                left = Math.min(left, subtitleLeft);
+                top = Math.min(top, (float) subtitleY);
+                right = Math.max(right, subtitleLeft + (fontRenderer.getWidth(title.subtitle()) + 1) * subtitleSize);
+                bottom = Math.max(bottom, (float) subtitleY + lineHeight * subtitleSize);
             }
+            boundsX = (float) Math.floor(left);
+            boundsY = (float) Math.floor(top);
+            boundsWidth = (float) Math.ceil(right) - boundsX;
+            boundsHeight = (float) Math.ceil(bottom) - boundsY;
+        }
+    }
+
+    /**
+     * Shows a hint about the territory ahead until it is cleared or a title appears
+     *
+     * @param hint The hint text
+     */
+    public void showHint(Text hint) {
+        this.hint = hint;
+    }
+
+    public void clearHint() {
+        hint = null;
+    }
+
+    /**
+     * Renders the look-ahead hint where the subtitle would go, in the subtitle's size
+     *
+     * @param drawContext The current draw context
+     * @param settings    The settings snapshot for this frame
+     */
+    public void renderHint(DrawContext drawContext, TitleSettings settings) {
+        Text hint = this.hint;
+        if (!settings.enabled || hint == null || displayedTitle != null) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.getDebugHud().shouldShowDebugHud()) return;
+
+        double originX = settings.centerText ? mc.getWindow().getScaledWidth() / 2.0 : 0;
+        double originY = settings.centerText ? mc.getWindow().getScaledHeight() / 2.0 : 0;
+        int xPos = settings.centerText ? -(mc.textRenderer.getWidth(hint) / 2) : 0;
+
+        drawContext.getMatrices().push();
+        drawContext.getMatrices().translate(originX + settings.subtitleXOffset, originY + settings.subtitleYOffset, 0);
+        drawContext.getMatrices().scale(settings.subtitleSize, settings.subtitleSize, settings.subtitleSize);
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        drawContext.drawText(mc.textRenderer, hint, xPos, 0, settings.textColor | HINT_ALPHA, settings.renderShadow);
+        RenderSystem.disableBlend();
+        drawContext.getMatrices().pop();
+    }
+
+    /**
+     * Clears the title once its animation has finished
+     */
+    public void tick() {
+        if (displayedTitle != null && !animation.isRunning(System.nanoTime())) {
+            clearTimer();
         }
     }
 
@@ -232,8 +392,10 @@ public class TerritoryRenderer {
      * Clears the current title display
      */
     public void clearTimer() {
+        // Only clear display variables
         displayedTitle = null;
-        displayedSubTitle = null;
-        isRenderingSignificantTerritory = false;
+        animation.stop();
+        composite.release();
+        invalidateLayout();
     }
-}
\ No newline at end of file
+}
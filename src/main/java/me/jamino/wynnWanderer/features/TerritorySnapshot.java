@@ -0,0 +1,121 @@
+package me.jamino.wynnWanderer.features;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary copy of the last known territory set, so territory lookups work
+ * on world join before Wynntils has loaded its own territory data.
+ *
+ * <p>Layout (big-endian): magic, version, count, then per territory the four bounds
+ * and the UTF-8 name prefixed with its length. Significance is not stored, it is looked up from the
+ * registry so resource pack changes apply to snapshot territories too.</p>
+ */
+public final class TerritorySnapshot {
+    private static final int MAGIC = 0x57575453; // "WWTS"
+    private static final int VERSION = 1;
+    // Four bounds and the name length
+    private static final int ENTRY_HEADER_SIZE = 18;
+    // Refuse to read anything larger, the real territory set is a few tens of kilobytes
+    private static final long MAX_FILE_SIZE = 16L * 1024 * 1024;
+
+    private TerritorySnapshot() {
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file The snapshot file
+     * @return The stored territories, or an empty list if the file is missing, outdated or corrupt
+     */
+    public static List<TerritoryArea> read(Path file) {
+        if (!Files.isRegularFile(file)) return List.of();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 12 || size > MAX_FILE_SIZE) return List.of();
+
+            // Read the whole file in one go; the file is rewritten while the game runs,
+            // so it is deliberately not kept memory-mapped
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until full
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC) return List.of();
+            if (buffer.getInt() != VERSION) return List.of();
+
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / ENTRY_HEADER_SIZE) return List.of();
+
+            List<TerritoryArea> areas = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int minX = buffer.getInt();
+                int minZ = buffer.getInt();
+                int maxX = buffer.getInt();
+                int maxZ = buffer.getInt();
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                areas.add(new TerritoryArea(new String(name, StandardCharsets.UTF_8), minX, minZ, maxX, maxZ));
+            }
+            return areas;
+        } catch (IOException | RuntimeException e) {
+            ErrorReporter.report(Feature.STORAGE, "Error reading territory snapshot '" + file + "'", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Writes a snapshot file, replacing any existing one atomically.
+     *
+     * @param file  The snapshot file
+     * @param areas The territories to store
+     * @throws IOException If the file could not be written
+     */
+    public static void write(Path file, Collection<TerritoryArea> areas) throws IOException {
+        byte[][] names = new byte[areas.size()][];
+        int size = 12;
+        int i = 0;
+        for (TerritoryArea area : areas) {
+            byte[] name = area.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                name = new byte[0];
+            }
+            names[i++] = name;
+            size += ENTRY_HEADER_SIZE + name.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(areas.size());
+        i = 0;
+        for (TerritoryArea area : areas) {
+            byte[] name = names[i++];
+            buffer.putInt(area.minX()).putInt(area.minZ()).putInt(area.maxX()).putInt(area.maxZ());
+            buffer.putShort((short) name.length).put(name);
+        }
+        buffer.flip();
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,19 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Styling for a significant territory, loaded from the significant territory registry.
+ * Unset values fall back to the significant territory settings in the config.
+ *
+ * @param color                  The title color as packed RGB, or {@link #UNSET_COLOR}
+ * @param titleSizeMultiplier    The title size multiplier, or 0 to use the configured one
+ * @param subtitleSizeMultiplier The subtitle size multiplier, or 0 to use the configured one
+ * @param priority               Titles with a lower priority never interrupt one with a higher priority
+ */
+public record TerritoryStyle(int color, double titleSizeMultiplier, double subtitleSizeMultiplier, int priority) {
+    public static final int UNSET_COLOR = -1;
+    public static final TerritoryStyle DEFAULT = new TerritoryStyle(UNSET_COLOR, 0, 0, 0);
+
+    public boolean hasColor() {
+        return color != UNSET_COLOR;
+    }
+}
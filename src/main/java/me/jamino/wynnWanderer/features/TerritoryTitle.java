@@ -0,0 +1,16 @@
+package me.jamino.wynnWanderer.features;
+
+import net.minecraft.text.Text;
+
+/**
+ * A fully resolved territory title, ready to hand to the {@link TerritoryRenderer}.
+ *
+ * @param title         The title text
+ * @param subtitle      The subtitle text, may be null
+ * @param color         The title color as packed RGB
+ * @param titleSize     Scale of the title text, including any multipliers
+ * @param subtitleSize  Scale of the subtitle text, including any multipliers
+ * @param priority      Titles with a lower priority never interrupt one with a higher priority
+ */
+public record TerritoryTitle(Text title, Text subtitle, int color, float titleSize, float subtitleSize, int priority) {
+}
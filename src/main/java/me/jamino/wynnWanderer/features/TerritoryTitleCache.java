@@ -0,0 +1,80 @@
+package me.jamino.wynnWanderer.features;
+
+import me.jamino.wynnWanderer.metrics.Metrics;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Caches the fully resolved title of each territory by territory ID.
+ * The cache empties itself when the game language changes, the significant territory
+ * registry is reloaded or a different settings snapshot is passed in.
+ *
+ * <p>Safe to use from the client thread and the async resolver at the same time. Titles are
+ * immutable, so a lost write only means a title is built again.</p>
+ */
+public class TerritoryTitleCache {
+    private final BiFunction<TerritoryArea, TitleSettings, TerritoryTitle> builder;
+    private volatile Titles titles = new Titles(null, -1, null, new TerritoryTitle[0]);
+
+    /**
+     * Constructs a cache that builds missing titles with the given function.
+     *
+     * @param builder Function building a territory's title from the given settings, must be thread-safe
+     */
+    public TerritoryTitleCache(BiFunction<TerritoryArea, TitleSettings, TerritoryTitle> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Gets a territory's title, building it on the first request.
+     *
+     * @param territory The territory
+     * @param settings  The settings snapshot to build the title with
+     * @return The resolved title
+     */
+    public TerritoryTitle get(TerritoryArea territory, TitleSettings settings) {
+        Titles current = titles;
+        String language = currentLanguage();
+        int generation = SignificantTerritoryManager.getGeneration();
+        if (!Objects.equals(current.language(), language) || current.registryGeneration() != generation
+                || current.settings() != settings) {
+            current = new Titles(language, generation, settings, new TerritoryTitle[current.byId().length]);
+            titles = current;
+        }
+
+        int id = territory.id();
+        TerritoryTitle[] byId = current.byId();
+        if (id < byId.length && byId[id] != null) {
+            Metrics.TITLE_CACHE_HITS.increment();
+            return byId[id];
+        }
+        Metrics.TITLE_CACHE_MISSES.increment();
+
+        TerritoryTitle title = builder.apply(territory, settings);
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, Math.max(64, byId.length * 2)));
+            titles = new Titles(current.language(), current.registryGeneration(), current.settings(), byId);
+        }
+        byId[id] = title;
+        return title;
+    }
+
+    /**
+     * Drops all cached titles.
+     */
+    public void clear() {
+        Titles current = titles;
+        titles = new Titles(null, -1, null, new TerritoryTitle[current.byId().length]);
+    }
+
+    private static String currentLanguage() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        return client == null || client.getLanguageManager() == null ? null : client.getLanguageManager().getLanguage();
+    }
+
+    private record Titles(String language, int registryGeneration, TitleSettings settings, TerritoryTitle[] byId) {
+    }
+}
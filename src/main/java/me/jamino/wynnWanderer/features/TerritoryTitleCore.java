@@ -3,185 +3,643 @@ package me.jamino.wynnWanderer.features;
 import com.wynntils.core.components.Models;
 import com.wynntils.models.territories.profile.TerritoryProfile;
 import com.wynntils.utils.mc.McUtils;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import me.jamino.wynnWanderer.metrics.Metrics;
+import me.jamino.wynnWanderer.stats.TerritoryStats;
+import me.jamino.wynnWanderer.stats.TerritoryStatsSnapshot;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
 public class TerritoryTitleCore {
-    private TerritoryProfile lastTerritoryProfile = null;
-    private static final int CHECK_INTERVAL_TICKS = 10;
-    private int tickCounter = 0;
+    // How often the territory index is compared against Wynntils' data, before and after it has loaded
+    private static final int INDEX_RETRY_TICKS = 10;
+    private static final int INDEX_REFRESH_TICKS = 100;
+    // How often changed territory statistics are saved, 5 minutes
+    private static final int STATS_SAVE_TICKS = 6000;
+    // Sub-zones whose title cooldowns are remembered
+    private static final int SUB_ZONE_CACHE_SIZE = 16;
+    private static final Pattern HEX_COLOR = Pattern.compile("[0-9A-Fa-f]{6}");
+    private int indexRefreshCounter = 0;
+    // Runtime switch on top of the configured enabled flag
     private boolean isEnabled = true;
-
-    // Flag for only showing significant territories
-    private boolean showOnlySignificantTerritories = true;
+    // Enabled and in a Wynncraft world. While false the tick and HUD handlers return straight away
+    private volatile boolean active = false;
+
+    // Current settings, replaced as a whole when the config changes. Each tick, frame
+    // and worker task reads this once and uses that snapshot throughout.
+    private volatile TitleSettings settings = TitleSettings.DEFAULT;
+    // Snapshot the caches were last configured from, only touched on the client thread
+    private TitleSettings appliedSettings = null;
+
+    // Spatial index over all territory bounds, rebuilt whenever Wynntils' territory data changes
+    private volatile TerritoryIndex<TerritoryArea> territoryIndex = TerritoryIndex.empty();
+    private long territoryIndexFingerprint = 0;
+    private boolean hasLiveTerritoryData = false;
+    // Wynntils' profile collection and its size at the last refresh, an unchanged one needs no work
+    private Collection<TerritoryProfile> lastProfiles = null;
+    private int lastProfileCount = -1;
+    // Sub-zone data the detector's cached lookup was made against
+    private int subZoneGeneration = -1;
+
+    // Territory set persisted between sessions, used until Wynntils has loaded its own data
+    private Path snapshotFile = null;
+    private long snapshotFingerprint = 0;
+
+    // Per-territory visit statistics, updated on each transition and saved periodically
+    private final TerritoryStats territoryStats = new TerritoryStats();
+    private Path statsFile = null;
+    private int statsSaveCounter = 0;
+    // Latest background stats write, the next write waits for it since both go through the same temp file
+    private CompletableFuture<Void> pendingStatsWrite = CompletableFuture.completedFuture(null);
+
+    // Check scheduling, the containment fast path and transition detection
+    private final TerritoryDetector detector = new TerritoryDetector();
+    // Position of the last applied lookup, where a leave fired on going dormant happens
+    private double lastSampleX = 0;
+    private double lastSampleZ = 0;
+
+    // Border look-ahead: edges of the current index, built on first use, and the territory last prestaged
+    private final TerritoryLookAhead lookAhead = new TerritoryLookAhead();
+    private TerritoryBorderIndex borderIndex = null;
+    private TerritoryIndex<TerritoryArea> borderIndexSource = null;
+    private TerritoryArea prestagedTerritory = null;
+
+    // Off-thread resolution, the tick thread only publishes samples and applies finished results
+    private final AsyncTerritoryResolver<TerritoryResolution> asyncResolver =
+            new AsyncTerritoryResolver<>(sample -> resolve(sample, true));
 
     // Title renderer for visualization
     public TerritoryRenderer territoryRenderer = new TerritoryRenderer();
 
     // Territory cache for tracking recently visited territories
     private TerritoryCache territoryCache;
+    // Cooldowns of sub-zone titles, keyed by zone ID so zones never evict territory cooldowns
+    private final TerritoryCache subZoneCache = new TerritoryCache(SUB_ZONE_CACHE_SIZE);
+
+    // Resolved titles per territory, so showing a title is a single lookup
+    private final TerritoryTitleCache titleCache = new TerritoryTitleCache(this::buildTerritoryTitle);
 
     public TerritoryTitleCore() {
         // Initialize cache with default size
-        territoryCache = new TerritoryCache(3);
+        territoryCache = new TerritoryCache(64);
     }
 
     public void initialize() {
+        // Switch between active and dormant when the player joins or leaves a Wynncraft world
+        WorldStateTracker.addListener(onWorld -> updateActive());
+        WorldStateTracker.register();
+        updateActive();
+
         // Register tick event to periodically check for territory changes
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (!isEnabled) return;
+            // Dormant off-world or while disabled, nothing else runs
+            if (!active) return;
 
-            // Only run when on Wynncraft world
-            try {
-                // Ensure player and world state are available before checking
-                if (client.player == null || !Models.WorldState.onWorld()) return;
-            } catch (Exception e) {
-                // Wynntils might not be loaded yet or world state check failed
-                System.err.println("Error checking world state (Wynntils might be initializing): " + e.getMessage());
+            // Back off for a while when detection keeps failing
+            if (ErrorReporter.isSuspended(Feature.TERRITORY_DETECTION)) {
+                territoryStats.pause(System.nanoTime());
                 return;
             }
 
-            // Territory check timer
-            tickCounter++;
-            if (tickCounter >= CHECK_INTERVAL_TICKS) {
-                tickCounter = 0;
-                checkTerritory();
+            TitleSettings settings = this.settings;
+            // Reconfigure the caches on the first tick after a config change
+            if (settings != appliedSettings) {
+                onSettingsChanged(settings);
             }
 
-            // Title animation timer
+            // The player is briefly missing while switching worlds
+            if (client.player == null) return;
+            territoryStats.resume(System.nanoTime());
+
+            // Zones were reloaded, so the cached lookup may be stale
+            if (subZoneGeneration != SubZoneManager.getGeneration()) {
+                subZoneGeneration = SubZoneManager.getGeneration();
+                detector.invalidate();
+            }
+
+            // Keep the index in sync with Wynntils; retry often until live data has loaded
+            indexRefreshCounter++;
+            if (indexRefreshCounter >= (hasLiveTerritoryData ? INDEX_REFRESH_TICKS : INDEX_RETRY_TICKS)) {
+                indexRefreshCounter = 0;
+                refreshTerritoryIndex();
+            }
+
+            // Apply a result handed back by the async worker
+            if (settings.asyncResolution) {
+                applyPendingResolution(settings);
+            }
+
+            // Find the territory ahead before deciding whether to check this tick
+            if (settings.lookAheadMode != LookAheadMode.OFF) {
+                lookAhead(settings, client.player.getX(), client.player.getZ());
+            }
+
+            // Check when the movement hook saw a new block, and on the tick timer unless it's switched off.
+            // The timer's interval adapts to movement and distance to the nearest border
+            boolean moved = settings.detectionTrigger != DetectionTrigger.POLLING && PlayerMovementTracker.consumeMoved();
+            boolean due = settings.detectionTrigger == DetectionTrigger.MOVEMENT
+                    ? !detector.isResolved()
+                    : detector.tick(settings, client.player.getX(), client.player.getZ());
+            if (moved || due) {
+                checkTerritory(settings);
+            }
+
+            // Title animation and cooldown timers
             territoryRenderer.tick();
+            territoryCache.tick();
+            subZoneCache.tick();
+
+            statsSaveCounter++;
+            if (statsSaveCounter >= STATS_SAVE_TICKS) {
+                statsSaveCounter = 0;
+                saveTerritoryStats(true);
+            }
         });
 
+        // Save the current visit before the game closes
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> saveTerritoryStats(false));
+
         // Register HUD render event
         HudRenderCallback.EVENT.register((drawContext, renderTickCounter) -> {
-            // Pass the float delta time to renderTitle - using the tickDelta method
-            territoryRenderer.renderTitle(drawContext, renderTickCounter.getTickDelta(false));
+            if (!active || ErrorReporter.isSuspended(Feature.TITLE_RENDERING)) return;
+
+            TitleSettings settings = this.settings;
+            // Catch a teleport that arrived since the last tick, so its title shows on this frame
+            if (settings == appliedSettings && settings.detectionTrigger != DetectionTrigger.POLLING
+                    && !ErrorReporter.isSuspended(Feature.TERRITORY_DETECTION) && PlayerMovementTracker.consumeMoved()) {
+                checkTerritory(settings);
+            }
+
+            long start = Metrics.startTimer();
+            try {
+                territoryRenderer.renderTitle(drawContext, settings);
+                territoryRenderer.renderHint(drawContext, settings);
+            } catch (RuntimeException e) {
+                ErrorReporter.report(Feature.TITLE_RENDERING, "Error rendering territory title", e);
+            }
+            Metrics.RENDER_TITLE.recordSince(start);
         });
     }
 
     public void setEnabled(boolean enabled) {
         this.isEnabled = enabled;
-        if (!enabled) {
-            lastTerritoryProfile = null;
+        updateActive();
+    }
+
+    /**
+     * Recomputes whether the tick and HUD handlers run, and settles state when going dormant.
+     * Runs on the client thread, like the world state changes it follows.
+     */
+    private void updateActive() {
+        boolean active = isEnabled && settings.enabled && WorldStateTracker.isOnWorld();
+        // Position updates are only tracked while something consumes them
+        PlayerMovementTracker.setEnabled(active && settings.detectionTrigger != DetectionTrigger.POLLING);
+        if (active == this.active) return;
+
+        this.active = active;
+        if (!active) {
+            leaveCurrentTerritory();
+            asyncResolver.clear();
+            clearLookAhead();
             territoryRenderer.clearTimer();
         }
     }
 
     /**
-     * Updates configuration settings for the title renderer
+     * Ends the current visit when going dormant, so the journal and statistics don't keep a visit open
+     * while nothing is tracked. The territory is entered again by the first check after waking up.
      */
-    public void updateSettings(
-            boolean enabled,
-            boolean showOnlySignificantTerritories,
-            int fadeInTime,
-            int displayTime,
-            int fadeOutTime,
-            int cooldownTime,
-            String textColor,
-            double textSize,
-            boolean renderShadow,
-            int xOffset,
-            int yOffset,
-            int subtitleXOffset,
-            int subtitleYOffset,
-            double subtitleSize,
-            boolean showSubtitles,
-            boolean useEnhancedStyling,
-            double titleSizeMultiplier,
-            double subtitleSizeMultiplier,
-            boolean useCustomColors,
-            String defaultSignificantColor,
-            boolean centerText,
-            int cacheSize
-    ) {
-        this.isEnabled = enabled;
-        this.showOnlySignificantTerritories = showOnlySignificantTerritories;
-        territoryRenderer.enabled = enabled;
-        territoryRenderer.textFadeInTime = fadeInTime;
-        territoryRenderer.textDisplayTime = displayTime;
-        territoryRenderer.textFadeOutTime = fadeOutTime;
-        territoryRenderer.textCooldownTime = cooldownTime;
-        territoryRenderer.textColor = textColor;
-        territoryRenderer.setColor(textColor);
-        territoryRenderer.textSize = textSize;
-        territoryRenderer.renderShadow = renderShadow;
-        territoryRenderer.textXOffset = xOffset;
-        territoryRenderer.textYOffset = yOffset;
-        territoryRenderer.subtitleXOffset = subtitleXOffset;
-        territoryRenderer.subtitleYOffset = subtitleYOffset;
-        territoryRenderer.subtitleSize = subtitleSize;
-        territoryRenderer.showSubtitles = showSubtitles;
-        territoryRenderer.useEnhancedStyling = useEnhancedStyling;
-        territoryRenderer.titleSizeMultiplier = titleSizeMultiplier;
-        territoryRenderer.subtitleSizeMultiplier = subtitleSizeMultiplier;
-        territoryRenderer.useCustomColors = useCustomColors;
-        territoryRenderer.defaultSignificantColor = defaultSignificantColor;
-        territoryRenderer.centerText = centerText;
-
-        // Update the cache size
-        territoryCache.setCacheSize(cacheSize);
+    private void leaveCurrentTerritory() {
+        TerritoryArea current = detector.getCurrentTerritory();
+        detector.reset();
+        territoryStats.leave(System.nanoTime());
+        if (current != null) {
+            TerritoryEvents.fireLeave(current, null, lastSampleX, lastSampleZ);
+        }
+    }
+
+    /**
+     * Publishes a new settings snapshot. Takes effect atomically: the tick, the
+     * renderer and the async worker pick it up the next time they run.
+     *
+     * @param settings The compiled settings
+     */
+    public void applySettings(TitleSettings settings) {
+        this.settings = settings;
+        updateActive();
+    }
+
+    /**
+     * Gets the current settings snapshot
+     *
+     * @return The settings
+     */
+    public TitleSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Brings the caches in line with a new settings snapshot. Runs on the client thread.
+     */
+    private void onSettingsChanged(TitleSettings settings) {
+        settings.applyTo(territoryCache);
+        subZoneCache.setDefaultCooldown(settings.cooldownTime);
+        if (appliedSettings != null && appliedSettings.asyncResolution && !settings.asyncResolution) {
+            asyncResolver.clear();
+        }
+        if (!settings.collectStats) {
+            territoryStats.leave(System.nanoTime());
+        }
+        // Drop a hint shown under the previous look-ahead mode
+        clearLookAhead();
+        appliedSettings = settings;
+    }
+
+    /**
+     * Loads the territory snapshot saved by a previous session so lookups work
+     * before Wynntils has loaded its territory data. Later changes are written back to the same file.
+     *
+     * @param file The snapshot file
+     */
+    public void loadTerritorySnapshot(Path file) {
+        this.snapshotFile = file;
+        List<TerritoryArea> areas = TerritorySnapshot.read(file);
+        if (areas.isEmpty() || hasLiveTerritoryData) return;
+
+        territoryIndex = buildIndex(areas);
+        territoryIndexFingerprint = fingerprintOf(areas);
+        snapshotFingerprint = territoryIndexFingerprint;
+        detector.invalidate();
+    }
+
+    /**
+     * Loads the territory statistics saved by a previous session. Later changes are written back to the same file.
+     *
+     * @param file The statistics file
+     */
+    public void loadTerritoryStats(Path file) {
+        this.statsFile = file;
+        TerritoryStatsSnapshot.read(file, territoryStats);
+    }
+
+    /**
+     * Writes the territory statistics if they changed since the last save.
+     * Writes run one at a time, a blocking save first waits for the background one.
+     *
+     * @param async Whether to write the file in the background
+     */
+    private void saveTerritoryStats(boolean async) {
+        territoryStats.flush(System.nanoTime());
+        if (statsFile == null || !territoryStats.consumeDirty()) return;
+
+        // Copy on the client thread, the write only touches the copy
+        TerritoryStatsSnapshot snapshot = TerritoryStatsSnapshot.capture(territoryStats);
+        Path file = statsFile;
+        Runnable write = () -> {
+            try {
+                snapshot.write(file);
+            } catch (Exception e) {
+                // Catch everything so a failed write never breaks the chain of later writes
+                ErrorReporter.report(Feature.STORAGE, "Error saving territory stats", e);
+            }
+        };
+        if (async) {
+            pendingStatsWrite = pendingStatsWrite.thenRunAsync(write);
+        } else {
+            pendingStatsWrite.join();
+            write.run();
+        }
+    }
+
+    /**
+     * Rebuilds the territory index if Wynntils' territory set has changed since the last build.
+     * Unchanged territories compare equal across rebuilds, so a refresh never re-triggers a title.
+     */
+    private void refreshTerritoryIndex() {
+        try {
+            Collection<TerritoryProfile> profiles = Models.Territory.getTerritoryProfiles();
+            // Keep the snapshot until Wynntils actually has data
+            if (profiles == null || profiles.isEmpty()) return;
+            hasLiveTerritoryData = true;
+
+            // Wynntils replaces its collection when the data changes, so the same one means the same territories
+            if (profiles == lastProfiles && profiles.size() == lastProfileCount) return;
+            lastProfiles = profiles;
+            lastProfileCount = profiles.size();
+
+            // Fingerprint the profiles directly, areas are only built when something changed
+            long fingerprint = fingerprintOfProfiles(profiles);
+            if (fingerprint == territoryIndexFingerprint && territoryIndex.size() == profiles.size()) return;
+
+            List<TerritoryArea> areas = new ArrayList<>(profiles.size());
+            for (TerritoryProfile profile : profiles) {
+                areas.add(toArea(profile));
+            }
+            territoryIndex = buildIndex(areas);
+            territoryIndexFingerprint = fingerprint;
+            detector.invalidate();
+            saveTerritorySnapshot(areas, fingerprint);
+        } catch (Exception e) {
+            ErrorReporter.report(Feature.TERRITORY_DETECTION, "Error building territory index", e);
+        }
+    }
+
+    /**
+     * Rewrites the snapshot file in the background if the territory set differs from the stored one.
+     */
+    private void saveTerritorySnapshot(List<TerritoryArea> areas, long fingerprint) {
+        if (snapshotFile == null || fingerprint == snapshotFingerprint) return;
+
+        snapshotFingerprint = fingerprint;
+        Path file = snapshotFile;
+        CompletableFuture.runAsync(() -> {
+            try {
+                TerritorySnapshot.write(file, areas);
+            } catch (IOException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error saving territory snapshot", e);
+            }
+        });
+    }
+
+    private static TerritoryArea toArea(TerritoryProfile profile) {
+        return new TerritoryArea(profile.getFriendlyName(),
+                profile.getStartX(), profile.getStartZ(), profile.getEndX(), profile.getEndZ());
+    }
+
+    private static TerritoryIndex<TerritoryArea> buildIndex(List<TerritoryArea> areas) {
+        TerritoryIndex.Builder<TerritoryArea> builder = new TerritoryIndex.Builder<>();
+        for (TerritoryArea area : areas) {
+            builder.add(area.minX(), area.minZ(), area.maxX(), area.maxZ(), area);
+            TerritoryIds.update(area);
+        }
+        return builder.build();
     }
 
-    private void checkTerritory() {
+    /**
+     * Order-independent hash of a territory set, used to detect changes without rebuilding.
+     */
+    private static long fingerprintOf(List<TerritoryArea> areas) {
+        long fingerprint = areas.size();
+        for (TerritoryArea area : areas) {
+            fingerprint += fingerprintOf(area.name(), area.minX(), area.minZ(), area.maxX(), area.maxZ());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Same as {@link #fingerprintOf(List)} for the areas the profiles would become, without building them.
+     */
+    private static long fingerprintOfProfiles(Collection<TerritoryProfile> profiles) {
+        long fingerprint = profiles.size();
+        for (TerritoryProfile profile : profiles) {
+            String name = profile.getFriendlyName();
+            fingerprint += fingerprintOf(name == null ? "" : name,
+                    Math.min(profile.getStartX(), profile.getEndX()), Math.min(profile.getStartZ(), profile.getEndZ()),
+                    Math.max(profile.getStartX(), profile.getEndX()), Math.max(profile.getStartZ(), profile.getEndZ()));
+        }
+        return fingerprint;
+    }
+
+    private static long fingerprintOf(String name, int minX, int minZ, int maxX, int maxZ) {
+        long hash = name.hashCode();
+        hash = hash * 31 + minX;
+        hash = hash * 31 + minZ;
+        hash = hash * 31 + maxX;
+        hash = hash * 31 + maxZ;
+        return hash * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Projects the player's movement to the next territory border. Schedules a check for the tick
+     * the border should be crossed, builds the upcoming title ahead of time and, in hint mode,
+     * shows which territory is coming up.
+     */
+    private void lookAhead(TitleSettings settings, double x, double z) {
+        TerritoryIndex<TerritoryArea> index = territoryIndex;
+        if (borderIndexSource != index) {
+            borderIndex = TerritoryBorderIndex.of(index);
+            borderIndexSource = index;
+        }
+
+        TerritoryArea upcoming = null;
+        if (lookAhead.tick(borderIndex, index, x, z, settings.lookAheadTicks)) {
+            detector.checkWithin(lookAhead.getTicksToBorder());
+            upcoming = lookAhead.getUpcomingTerritory();
+            // Only prestage territories that would get a title
+            if (!upcoming.hasName() || upcoming.equals(detector.getCurrentTerritory())
+                    || (settings.showOnlySignificantTerritories && !SignificantTerritoryManager.isSignificant(upcoming.id()))) {
+                upcoming = null;
+            }
+        }
+        if (upcoming == null ? prestagedTerritory == null : upcoming.equals(prestagedTerritory)) return;
+
+        prestagedTerritory = upcoming;
+        if (upcoming == null) {
+            territoryRenderer.clearHint();
+            return;
+        }
+        // Build the title now, so the crossing tick only looks it up
+        titleCache.get(upcoming, settings);
+        if (settings.lookAheadMode == LookAheadMode.HINT) {
+            territoryRenderer.showHint(Text.translatable("wynn_wanderer.territory.approaching", upcoming.name()));
+        }
+    }
+
+    private void clearLookAhead() {
+        lookAhead.reset();
+        if (prestagedTerritory != null) {
+            prestagedTerritory = null;
+            territoryRenderer.clearHint();
+        }
+    }
+
+    private void checkTerritory(TitleSettings settings) {
         // Player null check already happened in tick event, but good practice to keep redundancy
         if (McUtils.player() == null) return;
 
+        long start = Metrics.startTimer();
         try {
             // Get player position using getPos() instead of position()
             Vec3d playerPos = McUtils.player().getPos();
 
-            // Get territory at current position
-            TerritoryProfile currentTerritory = Models.Territory.getTerritoryProfileForPosition(playerPos);
+            // Skip the lookup entirely while the player stays in the same block or territory
+            int blockX = MathHelper.floor(playerPos.x);
+            int blockZ = MathHelper.floor(playerPos.z);
+            if (detector.isStillResolved(blockX, blockZ)) {
+                Metrics.CHECKS_SKIPPED.increment();
+                return;
+            }
+            Metrics.CHECKS.increment();
 
-            // If player entered a new territory
-            if (currentTerritory != null && !currentTerritory.equals(lastTerritoryProfile)) {
-                // Skip if the territory is in the recent list and cooldown is active
-                if (territoryRenderer.cooldownTimer > 0 && territoryCache.matchesAnyEntry(t -> t.equals(currentTerritory))) {
-                    lastTerritoryProfile = currentTerritory;
-                    return;
-                }
+            PositionSample sample = new PositionSample(playerPos.x, playerPos.z, blockX, blockZ);
+            if (settings.asyncResolution) {
+                // The worker hands the result back through applyPendingResolution on a later tick
+                asyncResolver.submit(sample);
+            } else {
+                applyResolution(resolve(sample, false), settings);
+            }
+        } catch (Exception e) {
+            ErrorReporter.report(Feature.TERRITORY_DETECTION, "Error checking territory", e);
+        } finally {
+            Metrics.CHECK_TERRITORY.recordSince(start);
+        }
+    }
 
-                String territoryName = currentTerritory.getFriendlyName();
-                // Only display if the name is not null or empty
-                if (territoryName != null && !territoryName.isEmpty()) {
-                    boolean isSignificantTerritory = SignificantTerritoryManager.SIGNIFICANT_TERRITORIES.contains(territoryName);
+    /**
+     * Applies the latest result from the background worker, if one has completed.
+     */
+    private void applyPendingResolution(TitleSettings settings) {
+        TerritoryResolution resolution = asyncResolver.poll();
+        if (resolution == null) return;
 
-                    // Skip non-significant territories if the showOnlySignificantTerritories option is enabled
-                    if (showOnlySignificantTerritories && !isSignificantTerritory) {
-                        lastTerritoryProfile = currentTerritory;
-                        return;
-                    }
+        try {
+            applyResolution(resolution, settings);
+        } catch (Exception e) {
+            ErrorReporter.report(Feature.TERRITORY_DETECTION, "Error checking territory", e);
+        }
+    }
 
-                    displayTerritoryTitle(territoryName, currentTerritory);
+    /**
+     * Looks up the territory at a sampled position. Only reads immutable state,
+     * so it is safe to call from the background worker.
+     *
+     * @param sample        The sampled player position
+     * @param prebuildTitle Whether to build the title for the territory ahead of time
+     * @return The resolved territory and, if requested and displayable, its title
+     */
+    private TerritoryResolution resolve(PositionSample sample, boolean prebuildTitle) {
+        TerritoryIndex<TerritoryArea> index = territoryIndex;
+        long start = Metrics.startTimer();
+        int position = index.find(sample.x(), sample.z());
+        Metrics.TERRITORY_LOOKUP.recordSince(start);
+        TerritoryArea territory = position < 0 ? null : index.valueAt(position);
+        // Then the deepest sub-zone within the territory, if it has any
+        SubZoneIndex zones = territory == null ? null : SubZoneManager.get(territory.id());
+        int zonePosition = zones == null ? -1 : zones.find(sample.x(), sample.z());
+
+        TerritoryTitle title = null;
+        TitleSettings settings = this.settings;
+        if (prebuildTitle && territory != null && territory.hasName()
+                && (!settings.showOnlySignificantTerritories || SignificantTerritoryManager.isSignificant(territory.id()))) {
+            title = titleCache.get(territory, settings);
+        }
+        return new TerritoryResolution(sample, index, position, territory, zones, zonePosition, title, settings);
+    }
 
-                    // Update last territory and add to recent entries
-                    lastTerritoryProfile = currentTerritory;
-                    territoryCache.addEntry(currentTerritory);
-                } else {
-                    // Territory exists but has no friendly name, treat as leaving territory for display purposes
-                    lastTerritoryProfile = null;
-                }
+    /**
+     * Updates the cached position and shows a title if the player entered a new territory.
+     * Must run on the client thread.
+     *
+     * @param resolution The resolved territory at the player's sampled position
+     * @param settings   The current settings
+     */
+    private void applyResolution(TerritoryResolution resolution, TitleSettings settings) {
+        // Drop results computed against an index that has since been replaced
+        if (resolution.index() != territoryIndex) return;
+
+        lastSampleX = resolution.sample().x();
+        lastSampleZ = resolution.sample().z();
+        if (!detector.update(resolution.sample(), resolution.index(), resolution.position(),
+                resolution.zones(), resolution.zonePosition())) {
+            // Same territory, but maybe another level of its sub-zones
+            SubZone enteredZone = detector.getEnteredZone();
+            if (enteredZone != null && settings.showSubZoneTitles) {
+                showSubZoneTitle(enteredZone, settings);
+            }
+            return;
+        }
 
-            } else if (currentTerritory == null && lastTerritoryProfile != null) {
-                // Player left a territory and is not in a new one
-                lastTerritoryProfile = null;
+        TerritoryArea previousTerritory = detector.getPreviousTerritory();
+        TerritoryArea currentTerritory = detector.getCurrentTerritory();
+        Metrics.TRANSITIONS.increment();
+        if (settings.collectStats) {
+            if (currentTerritory != null) {
+                territoryStats.enter(currentTerritory.id(), System.currentTimeMillis(), System.nanoTime());
+            } else {
+                territoryStats.leave(System.nanoTime());
             }
-        } catch (Exception e) {
-            System.err.println("Error checking territory: " + e.getMessage());
         }
+        double x = resolution.sample().x();
+        double z = resolution.sample().z();
+        if (previousTerritory != null) {
+            TerritoryEvents.fireLeave(previousTerritory, currentTerritory, x, z);
+        }
+        if (currentTerritory == null) return;
+
+        // Player entered a new territory
+        TerritoryEvents.fireEnter(previousTerritory, currentTerritory, x, z);
+
+        // Skip titles suppressed by a cooldown, the significance filter or a higher priority title on screen
+        if (TerritoryDetector.decideTitle(currentTerritory, settings, territoryCache,
+                territoryRenderer.getDisplayedPriority()) != TerritoryDetector.TitleDecision.SHOW) {
+            return;
+        }
+
+        long start = Metrics.startTimer();
+        // Use the title built by the worker when there is one and it matches the current settings
+        TerritoryTitle title = resolution.title();
+        if (title == null || resolution.titleSettings() != settings) {
+            title = titleCache.get(currentTerritory, settings);
+        }
+
+        territoryRenderer.showTitle(title, settings);
+        Metrics.SHOW_TITLE.recordSince(start);
+        Metrics.TITLES_SHOWN.increment();
+
+        // Start the territory's cooldown
+        territoryCache.addEntry(currentTerritory);
+        TerritoryEvents.fireTitleShown(previousTerritory, currentTerritory, title, x, z);
     }
 
-    private void displayTerritoryTitle(String territoryName, TerritoryProfile territory) {
+    /**
+     * Shows the title of a sub-zone the player entered, unless its cooldown is active
+     * or a higher priority title is still on screen.
+     */
+    private void showSubZoneTitle(SubZone zone, TitleSettings settings) {
+        if (subZoneCache.isCoolingDown(zone.id()) || !territoryRenderer.canReplaceTitle(0)) return;
+
+        TerritoryTitle title = new TerritoryTitle(
+                Text.translatable("wynn_wanderer.zone.entering.title", zone.name()),
+                Text.translatable("wynn_wanderer.zone.entering.subtitle", zone.parentName()),
+                zone.hasColor() ? zone.color() : settings.textColor,
+                settings.subZoneTitleSize, settings.subZoneSubtitleSize, 0);
+        territoryRenderer.showTitle(title, settings);
+        Metrics.TITLES_SHOWN.increment();
+        subZoneCache.add(zone.id());
+    }
+
+    /**
+     * Builds the title, subtitle and color for a territory without touching renderer state.
+     * Only called on a miss in the title cache.
+     *
+     * @param territory The territory to build the title for
+     * @param settings  The settings to style the title with
+     * @return The resolved title
+     */
+    private TerritoryTitle buildTerritoryTitle(TerritoryArea territory, TitleSettings settings) {
+        String territoryName = territory.name();
         // Check if this is a significant territory for special styling
-        boolean isSignificantTerritory = SignificantTerritoryManager.SIGNIFICANT_TERRITORIES.contains(territoryName);
+        TerritoryStyle style = SignificantTerritoryManager.getStyle(territory.id());
+        boolean isSignificantTerritory = style != null;
         Text title;
         Text subtitle = null;
-
-        // Set the rendering mode for significant territories
-        territoryRenderer.setSignificantTerritoryMode(isSignificantTerritory);
+        int color;
+        float titleSize = settings.titleSize;
+        float subtitleSize = settings.subtitleSize;
 
         if (isSignificantTerritory) {
             // Create territory-specific key for custom styling
@@ -199,32 +657,28 @@ public class TerritoryTitleCore {
             subtitle = Text.translatable(subtitleKey);
 
             // Try to get custom color from config or fallback
-            if (territoryRenderer.useCustomColors) {
+            if (settings.useCustomColors) {
                 try {
                     // Try to see if the client can render the color key
                     Text colorText = Text.translatable(colorKey);
                     String colorString = colorText.getString();
                     // If we get something that looks like a color (hex digits), use it
-                    if (colorString.matches("[0-9A-Fa-f]{6}")) {
-                        territoryRenderer.setColor(colorString);
-                    } else if (territoryRenderer.useEnhancedStyling) {
-                        // Fallback to default significant color
-                        territoryRenderer.setColor(territoryRenderer.defaultSignificantColor);
+                    if (HEX_COLOR.matcher(colorString).matches()) {
+                        color = TerritoryRenderer.parseColor(colorString);
+                    } else if (style.hasColor()) {
+                        // Fallback to the color from the significant territory registry
+                        color = style.color();
                     } else {
-                        // Fallback to regular color
-                        territoryRenderer.setColor(territoryRenderer.textColor);
+                        // Fallback to the default significant color, or the regular color without enhanced styling
+                        color = settings.significantColor;
                     }
                 } catch (Exception e) {
                     // If there's any error, use appropriate fallback
-                    if (territoryRenderer.useEnhancedStyling) {
-                        territoryRenderer.setColor(territoryRenderer.defaultSignificantColor);
-                    } else {
-                        territoryRenderer.setColor(territoryRenderer.textColor);
-                    }
+                    color = settings.significantColor;
                 }
             } else {
                 // If not using custom colors, use regular color
-                territoryRenderer.setColor(territoryRenderer.textColor);
+                color = settings.textColor;
             }
 
             // If we're unable to find translations, fall back to the significant format
@@ -236,19 +690,38 @@ public class TerritoryTitleCore {
             if (subtitle.getString().equals(subtitleKey)) {
                 subtitle = Text.translatable("wynn_wanderer.territory.significant.subtitle");
             }
+
+            // Size multipliers from the registry, falling back to the configured ones
+            if (settings.useEnhancedStyling) {
+                titleSize = style.titleSizeMultiplier() > 0
+                        ? (float) (settings.titleSize * style.titleSizeMultiplier()) : settings.significantTitleSize;
+                subtitleSize = style.subtitleSizeMultiplier() > 0
+                        ? (float) (settings.subtitleSize * style.subtitleSizeMultiplier()) : settings.significantSubtitleSize;
+            }
         } else {
             // For regular territories, use the generic "Entering X" title
             title = Text.translatable("wynn_wanderer.territory.entering.title", territoryName);
             subtitle = Text.translatable("wynn_wanderer.territory.entering.subtitle");
-            territoryRenderer.setColor(territoryRenderer.textColor); // Use default color
+            color = settings.textColor; // Use default color
         }
 
-        // Start displaying the title
-        territoryRenderer.displayedTitle = title;
-        // Only set subtitle if they're enabled
-        territoryRenderer.displayedSubTitle = territoryRenderer.showSubtitles ? subtitle : null;
-        territoryRenderer.titleTimer = territoryRenderer.textFadeInTime + territoryRenderer.textDisplayTime + territoryRenderer.textFadeOutTime;
-        territoryRenderer.cooldownTimer = territoryRenderer.textCooldownTime; // Start cooldown immediately upon display
+        return new TerritoryTitle(title, subtitle, color, titleSize, subtitleSize,
+                TerritoryDetector.titlePriority(territory));
+    }
+
+    /**
+     * Result of looking up the territory at a sampled position
+     */
+    private record TerritoryResolution(
+            PositionSample sample,
+            TerritoryIndex<TerritoryArea> index,
+            int position,
+            TerritoryArea territory,
+            SubZoneIndex zones,
+            int zonePosition,
+            TerritoryTitle title,
+            TitleSettings titleSettings
+    ) {
     }
 
     // For external access to clear timers if needed
@@ -256,6 +729,24 @@ public class TerritoryTitleCore {
         territoryRenderer.clearTimer();
     }
 
+    /**
+     * Get the territory index for testing or debugging purposes
+     *
+     * @return The current territory index
+     */
+    public TerritoryIndex<TerritoryArea> getTerritoryIndex() {
+        return territoryIndex;
+    }
+
+    /**
+     * Get the per-territory visit statistics. Only use them on the client thread.
+     *
+     * @return The territory statistics
+     */
+    public TerritoryStats getTerritoryStats() {
+        return territoryStats;
+    }
+
     /**
      * Get the territory cache for testing or debugging purposes
      *
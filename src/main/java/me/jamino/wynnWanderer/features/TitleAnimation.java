@@ -0,0 +1,105 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Fade-in, display and fade-out timeline of a territory title.
+ * Driven by a monotonic nanosecond clock rather than client ticks, so fades stay smooth at
+ * any frame rate and keep their pace when ticks stall. The easing curve is baked into a
+ * lookup table whenever the animation is configured.
+ */
+public class TitleAnimation {
+    private static final int CURVE_RESOLUTION = 256;
+    private static final long NANOS_PER_TICK = 50_000_000L;
+
+    private final float[] curve = new float[CURVE_RESOLUTION + 1];
+    private TitleEasing easing = TitleEasing.LINEAR;
+    private long fadeInNanos;
+    private long displayNanos;
+    private long fadeOutNanos;
+
+    private boolean running = false;
+    private long startNanos;
+
+    public TitleAnimation() {
+        configure(TitleEasing.LINEAR, 10, 50, 10);
+    }
+
+    /**
+     * Sets the phase lengths and bakes the easing curve.
+     *
+     * @param easing       The easing curve for both fades
+     * @param fadeInTicks  Length of the fade-in in ticks
+     * @param displayTicks Length of the fully visible phase in ticks
+     * @param fadeOutTicks Length of the fade-out in ticks
+     */
+    public void configure(TitleEasing easing, int fadeInTicks, int displayTicks, int fadeOutTicks) {
+        this.easing = easing == null ? TitleEasing.LINEAR : easing;
+        this.fadeInNanos = Math.max(0, fadeInTicks) * NANOS_PER_TICK;
+        this.displayNanos = Math.max(0, displayTicks) * NANOS_PER_TICK;
+        this.fadeOutNanos = Math.max(0, fadeOutTicks) * NANOS_PER_TICK;
+        for (int i = 0; i <= CURVE_RESOLUTION; i++) {
+            curve[i] = this.easing.apply((float) i / CURVE_RESOLUTION);
+        }
+    }
+
+    /**
+     * Starts the timeline from the beginning.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}
+     */
+    public void start(long nowNanos) {
+        this.startNanos = nowNanos;
+        this.running = true;
+    }
+
+    public void stop() {
+        this.running = false;
+    }
+
+    /**
+     * Checks whether the title is still within its timeline.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @return true until the fade-out has finished
+     */
+    public boolean isRunning(long nowNanos) {
+        return running && nowNanos - startNanos < fadeInNanos + displayNanos + fadeOutNanos;
+    }
+
+    /**
+     * Gets the title opacity at a point in time.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @return Opacity from 0 to 1
+     */
+    public float opacity(long nowNanos) {
+        if (!running) return 0.0F;
+
+        long elapsed = nowNanos - startNanos;
+        if (elapsed < fadeInNanos) {
+            return sample(elapsed, fadeInNanos);
+        }
+        elapsed -= fadeInNanos + displayNanos;
+        if (elapsed < 0) return 1.0F;
+        if (elapsed >= fadeOutNanos) return 0.0F;
+        return sample(fadeOutNanos - elapsed, fadeOutNanos);
+    }
+
+    /**
+     * Gets how far the title has entered, used by the slide and scale effects.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @return Eased fade-in progress from 0 to 1, 1 once the fade-in is over
+     */
+    public float entrance(long nowNanos) {
+        long elapsed = nowNanos - startNanos;
+        return elapsed < fadeInNanos ? sample(elapsed, fadeInNanos) : 1.0F;
+    }
+
+    public TitleEasing getEasing() {
+        return easing;
+    }
+
+    private float sample(long elapsed, long duration) {
+        return curve[(int) (Math.max(0, elapsed) * CURVE_RESOLUTION / duration)];
+    }
+}
@@ -0,0 +1,127 @@
+package me.jamino.wynnWanderer.features;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.ProjectionType;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.ShaderProgramKeys;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import org.joml.Matrix4f;
+
+import java.util.function.Consumer;
+
+/**
+ * Off-screen copy of the composed title and subtitle.
+ * The glyphs are rasterized once into a framebuffer when a title starts, after which every
+ * frame is a single textured quad whose alpha follows the fade animation.
+ *
+ * <p>All methods must be called on the render thread.</p>
+ */
+public class TitleComposite {
+    private SimpleFramebuffer framebuffer = null;
+    // The layout the framebuffer contents were drawn for
+    private Object owner = null;
+
+    /**
+     * Checks whether the cached contents were drawn for the given layout.
+     *
+     * @param layout The current layout
+     * @return true if the composite can be drawn without composing again
+     */
+    public boolean isComposedFor(Object layout) {
+        return framebuffer != null && owner == layout;
+    }
+
+    /**
+     * Rasterizes content into the framebuffer, replacing the previous contents.
+     *
+     * @param drawContext The HUD draw context, flushed before and after composing
+     * @param mc          The client
+     * @param layout      The layout the contents belong to
+     * @param width       Width of the composed area in scaled pixels
+     * @param height      Height of the composed area in scaled pixels
+     * @param painter     Draws the contents with (0, 0) at the top left of the composed area
+     */
+    public void compose(DrawContext drawContext, MinecraftClient mc, Object layout, float width, float height,
+                        Consumer<DrawContext> painter) {
+        double scaleFactor = mc.getWindow().getScaleFactor();
+        int pixelWidth = Math.max(1, (int) Math.ceil(width * scaleFactor));
+        int pixelHeight = Math.max(1, (int) Math.ceil(height * scaleFactor));
+
+        // Anything queued for the main framebuffer must be drawn before switching targets
+        drawContext.draw();
+
+        if (framebuffer == null) {
+            framebuffer = new SimpleFramebuffer(pixelWidth, pixelHeight, false);
+        } else if (framebuffer.textureWidth != pixelWidth || framebuffer.textureHeight != pixelHeight) {
+            framebuffer.resize(pixelWidth, pixelHeight);
+        }
+        framebuffer.setClearColor(0.0F, 0.0F, 0.0F, 0.0F);
+        framebuffer.clear();
+        framebuffer.beginWrite(true);
+
+        Matrix4f previousProjection = RenderSystem.getProjectionMatrix();
+        ProjectionType previousProjectionType = RenderSystem.getProjectionType();
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0F, width, height, 0.0F, 1000.0F, 21000.0F),
+                ProjectionType.ORTHOGRAPHIC);
+        try {
+            drawContext.getMatrices().push();
+            painter.accept(drawContext);
+            drawContext.draw();
+            drawContext.getMatrices().pop();
+        } finally {
+            RenderSystem.setProjectionMatrix(previousProjection, previousProjectionType);
+            mc.getFramebuffer().beginWrite(true);
+        }
+        owner = layout;
+    }
+
+    /**
+     * Draws the composed contents as one textured quad.
+     *
+     * @param drawContext The HUD draw context
+     * @param x           Left edge in scaled pixels
+     * @param y           Top edge in scaled pixels
+     * @param width       Width in scaled pixels
+     * @param height      Height in scaled pixels
+     * @param alpha       Opacity from 0 to 1
+     */
+    public void draw(DrawContext drawContext, float x, float y, float width, float height, float alpha) {
+        if (framebuffer == null) return;
+
+        Matrix4f matrix = drawContext.getMatrices().peek().getPositionMatrix();
+        RenderSystem.setShader(ShaderProgramKeys.POSITION_TEX_COLOR);
+        RenderSystem.setShaderTexture(0, framebuffer.getColorAttachment());
+        RenderSystem.enableBlend();
+        // The framebuffer holds premultiplied alpha, so fade every channel
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        // Framebuffer rows start at the bottom, so the texture is flipped vertically
+        BufferBuilder buffer = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
+        buffer.vertex(matrix, x, y, 0.0F).texture(0.0F, 1.0F).color(alpha, alpha, alpha, alpha);
+        buffer.vertex(matrix, x, y + height, 0.0F).texture(0.0F, 0.0F).color(alpha, alpha, alpha, alpha);
+        buffer.vertex(matrix, x + width, y + height, 0.0F).texture(1.0F, 0.0F).color(alpha, alpha, alpha, alpha);
+        buffer.vertex(matrix, x + width, y, 0.0F).texture(1.0F, 1.0F).color(alpha, alpha, alpha, alpha);
+        BufferRenderer.drawWithGlobalProgram(buffer.end());
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+
+    /**
+     * Frees the framebuffer. The next {@link #compose} allocates a new one.
+     */
+    public void release() {
+        if (framebuffer != null) {
+            framebuffer.delete();
+            framebuffer = null;
+        }
+        owner = null;
+    }
+}
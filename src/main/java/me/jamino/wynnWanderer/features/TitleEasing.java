@@ -0,0 +1,31 @@
+package me.jamino.wynnWanderer.features;
+
+/**
+ * Easing curves available for the territory title fade animation.
+ */
+public enum TitleEasing {
+    /** Constant speed fades, the original behaviour */
+    LINEAR,
+    /** Slow start and end */
+    EASE_IN_OUT,
+    /** Fast start that settles gently */
+    CUBIC,
+    /** Cubic fade while the title slides up into place */
+    SLIDE,
+    /** Cubic fade while the title grows to its full size */
+    SCALE;
+
+    /**
+     * Evaluates the curve.
+     *
+     * @param t Linear progress from 0 to 1
+     * @return Eased progress from 0 to 1
+     */
+    public float apply(float t) {
+        return switch (this) {
+            case LINEAR -> t;
+            case EASE_IN_OUT -> (float) (0.5 - 0.5 * Math.cos(Math.PI * t));
+            case CUBIC, SLIDE, SCALE -> 1.0F - (1.0F - t) * (1.0F - t) * (1.0F - t);
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package me.jamino.wynnWanderer.features;
+
+import me.jamino.wynnWanderer.config.WynnWandererConfig;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, pre-validated snapshot of the territory title config.
+ * Colors are parsed, sizes are multiplied out and out-of-range values are clamped once
+ * when the config is applied, so the tick and render paths only read final fields.
+ *
+ * <p>A new snapshot is published by replacing the reference held by {@link TerritoryTitleCore},
+ * readers never see a half-applied config.</p>
+ */
+public final class TitleSettings {
+    public static final TitleSettings DEFAULT = from(new WynnWandererConfig.TerritoryTitlesConfig());
+
+    public final boolean enabled;
+    public final boolean showOnlySignificantTerritories;
+
+    // Animation, in ticks
+    public final int fadeInTime;
+    public final int displayTime;
+    public final int fadeOutTime;
+    public final int cooldownTime;
+    public final TitleEasing easing;
+
+    // Appearance, colors as packed RGB
+    public final int textColor;
+    public final float titleSize;
+    public final float subtitleSize;
+    public final boolean renderShadow;
+    public final boolean cacheTitleComposite;
+    public final boolean showSubtitles;
+
+    // Positioning
+    public final int textXOffset;
+    public final int textYOffset;
+    public final int subtitleXOffset;
+    public final int subtitleYOffset;
+    public final boolean centerText;
+
+    // Significant territories: sizes already include the configured multipliers,
+    // and the fallback color is the one used when no custom or registry color applies
+    public final boolean useEnhancedStyling;
+    public final boolean useCustomColors;
+    public final int significantColor;
+    public final float significantTitleSize;
+    public final float significantSubtitleSize;
+
+    // Detection
+    public final int cacheSize;
+    public final int minCheckInterval;
+    public final int maxCheckInterval;
+    public final DetectionTrigger detectionTrigger;
+    public final boolean asyncResolution;
+    public final LookAheadMode lookAheadMode;
+    public final int lookAheadTicks;
+
+    // Sub-zones
+    public final boolean showSubZoneTitles;
+    public final float subZoneTitleSize;
+    public final float subZoneSubtitleSize;
+
+    // Statistics
+    public final boolean collectStats;
+
+    // Per-territory cooldown overrides, parallel arrays of territory IDs and ticks
+    private final int[] cooldownIds;
+    private final int[] cooldownTicks;
+
+    private TitleSettings(WynnWandererConfig.TerritoryTitlesConfig config) {
+        WynnWandererConfig.TerritoryTitlesConfig.AppearanceConfig appearance = config.appearance;
+        WynnWandererConfig.TerritoryTitlesConfig.PositioningConfig positioning = config.positioning;
+        WynnWandererConfig.TerritoryTitlesConfig.AnimationConfig animation = config.animation;
+        WynnWandererConfig.TerritoryTitlesConfig.DetectionConfig detection = config.detection;
+        WynnWandererConfig.TerritoryTitlesConfig.SignificantTerritoryConfig significant = config.significantTerritories;
+
+        enabled = config.enabled;
+        showOnlySignificantTerritories = config.showOnlySignificantTerritories;
+
+        fadeInTime = Math.max(0, animation.textFadeInTime);
+        displayTime = Math.max(0, animation.textDisplayTime);
+        fadeOutTime = Math.max(0, animation.textFadeOutTime);
+        cooldownTime = Math.max(0, animation.textCooldownTime);
+        easing = animation.easing == null ? TitleEasing.LINEAR : animation.easing;
+
+        textColor = TerritoryRenderer.parseColor(appearance.textColor);
+        titleSize = positiveOr(appearance.textSize, 2.1);
+        subtitleSize = positiveOr(appearance.subtitleSize, 1.3);
+        renderShadow = appearance.renderShadow;
+        cacheTitleComposite = appearance.cacheTitleComposite;
+        showSubtitles = appearance.showSubtitles;
+
+        textXOffset = positioning.textXOffset;
+        textYOffset = positioning.textYOffset;
+        subtitleXOffset = positioning.subtitleXOffset;
+        subtitleYOffset = positioning.subtitleYOffset;
+        centerText = positioning.centerText;
+
+        useEnhancedStyling = significant.useEnhancedStyling;
+        useCustomColors = significant.useCustomColors;
+        significantColor = useEnhancedStyling ? TerritoryRenderer.parseColor(significant.defaultColor) : textColor;
+        significantTitleSize = useEnhancedStyling
+                ? titleSize * positiveOr(significant.titleSizeMultiplier, 1.0) : titleSize;
+        significantSubtitleSize = useEnhancedStyling
+                ? subtitleSize * positiveOr(significant.subtitleSizeMultiplier, 1.0) : subtitleSize;
+
+        showSubZoneTitles = config.subZones.showTitles;
+        subZoneTitleSize = titleSize * positiveOr(config.subZones.titleSizeMultiplier, 1.0);
+        subZoneSubtitleSize = subtitleSize * positiveOr(config.subZones.subtitleSizeMultiplier, 1.0);
+
+        cacheSize = Math.max(0, animation.recentTerritoryCacheSize);
+        minCheckInterval = Math.max(1, detection.minCheckInterval);
+        maxCheckInterval = Math.max(minCheckInterval, detection.maxCheckInterval);
+        detectionTrigger = detection.trigger == null ? DetectionTrigger.POLLING : detection.trigger;
+        asyncResolution = detection.asyncResolution;
+        lookAheadMode = detection.lookAhead == null ? LookAheadMode.OFF : detection.lookAhead;
+        lookAheadTicks = Math.max(0, detection.lookAheadTicks);
+        collectStats = config.stats.collectStats;
+
+        List<String> cooldowns = animation.territoryCooldowns == null ? List.of() : animation.territoryCooldowns;
+        int[] ids = new int[cooldowns.size()];
+        int[] ticks = new int[cooldowns.size()];
+        int count = 0;
+        for (String entry : cooldowns) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                ErrorReporter.warn(Feature.CONFIG, "Territory cooldown '" + entry + "' is not in the form 'Territory Name=ticks'. Ignoring...");
+                continue;
+            }
+            try {
+                ticks[count] = Integer.parseInt(entry.substring(separator + 1).trim());
+                ids[count] = TerritoryIds.intern(entry.substring(0, separator).trim());
+                count++;
+            } catch (NumberFormatException e) {
+                ErrorReporter.warn(Feature.CONFIG, "Territory cooldown '" + entry + "' has an invalid tick count. Ignoring...");
+            }
+        }
+        cooldownIds = Arrays.copyOf(ids, count);
+        cooldownTicks = Arrays.copyOf(ticks, count);
+    }
+
+    /**
+     * Compiles the territory title config into a snapshot.
+     * Names in per-territory cooldowns must match the territory's friendly name exactly.
+     *
+     * @param config The config to compile
+     * @return The compiled settings
+     */
+    public static TitleSettings from(WynnWandererConfig.TerritoryTitlesConfig config) {
+        return new TitleSettings(config);
+    }
+
+    /**
+     * Applies the default and per-territory cooldowns and the cache size to a territory cache.
+     *
+     * @param cache The cache to configure
+     */
+    public void applyTo(TerritoryCache cache) {
+        cache.setCacheSize(cacheSize);
+        cache.setDefaultCooldown(cooldownTime);
+        cache.setCooldownOverrides(cooldownIds, cooldownTicks);
+    }
+
+    private static float positiveOr(double value, double fallback) {
+        return (float) (value > 0 ? value : fallback);
+    }
+}
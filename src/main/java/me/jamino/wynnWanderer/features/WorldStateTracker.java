@@ -0,0 +1,117 @@
+package me.jamino.wynnWanderer.features;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.core.components.Models;
+import com.wynntils.models.worlds.event.WorldStateEvent;
+import com.wynntils.models.worlds.type.WorldState;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.MinecraftClient;
+import net.neoforged.bus.api.SubscribeEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks whether the player is in a Wynncraft world from Wynntils' world state events,
+ * so per-tick work can be switched off entirely in the lobby, in menus and on other servers.
+ *
+ * <p>If the events can't be subscribed to, e.g. with an incompatible Wynntils version, the
+ * world state is polled once a second instead. Without Wynntils the player is never on a world.</p>
+ *
+ * <p>Wynntils may post its events from other threads, so changes are handed to the client thread
+ * and listeners always run there.</p>
+ */
+public final class WorldStateTracker {
+    private static final int POLL_TICKS = 20;
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile boolean onWorld = false;
+    private static boolean registered = false;
+    private static int pollCounter = 0;
+
+    private WorldStateTracker() {
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called on the client thread.
+         *
+         * @param onWorld Whether the player is now in a Wynncraft world
+         */
+        void onWorldStateChanged(boolean onWorld);
+    }
+
+    /**
+     * Subscribes to Wynntils' world state events. Safe to call more than once.
+     */
+    public static void register() {
+        if (registered) return;
+        registered = true;
+
+        try {
+            WynntilsMod.registerEventListener(new WynntilsListener());
+            // In case a world was joined before we subscribed. Called on the client thread
+            setOnWorld(Models.WorldState.onWorld());
+        } catch (LinkageError | RuntimeException e) {
+            ErrorReporter.report(Feature.TERRITORY_DETECTION,
+                    "Could not subscribe to Wynntils world state events, polling instead", e);
+            ClientTickEvents.END_CLIENT_TICK.register(WorldStateTracker::poll);
+        }
+    }
+
+    /**
+     * Adds a listener for world state changes.
+     *
+     * @param listener The listener
+     */
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * @return Whether the player is in a Wynncraft world, a field read
+     */
+    public static boolean isOnWorld() {
+        return onWorld;
+    }
+
+    /**
+     * Applies a world state change and notifies the listeners. Client thread only.
+     */
+    private static void setOnWorld(boolean value) {
+        if (onWorld == value) return;
+
+        onWorld = value;
+        for (Listener listener : LISTENERS) {
+            listener.onWorldStateChanged(value);
+        }
+    }
+
+    private static void poll(MinecraftClient client) {
+        pollCounter++;
+        if (pollCounter < POLL_TICKS) return;
+        pollCounter = 0;
+
+        try {
+            setOnWorld(Models.WorldState.onWorld());
+        } catch (LinkageError | RuntimeException e) {
+            ErrorReporter.report(Feature.TERRITORY_DETECTION, "Error checking world state (Wynntils might be initializing)", e);
+            setOnWorld(false);
+        }
+    }
+
+    /**
+     * Instance subscriber, Wynntils' event bus only calls non-static methods of registered objects.
+     */
+    public static final class WynntilsListener {
+        @SubscribeEvent
+        public void onWorldStateChange(WorldStateEvent event) {
+            boolean onWorld = event.getNewState() == WorldState.WORLD;
+            // Listeners touch render state, e.g. the title composite's framebuffer
+            MinecraftClient.getInstance().execute(() -> setOnWorld(onWorld));
+        }
+    }
+}
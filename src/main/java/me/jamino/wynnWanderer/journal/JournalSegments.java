@@ -0,0 +1,187 @@
+package me.jamino.wynnWanderer.journal;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal segment files, rotated by size.
+ *
+ * <p>Each segment is a sequence of records: int payload length, the payload and a CRC32 of the
+ * payload. When a segment is opened for appending, records are verified from the start and the
+ * file is truncated after the last intact one, so a crash mid-write only loses that record.</p>
+ *
+ * <p>Only used from the journal writer thread.</p>
+ */
+final class JournalSegments {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("visits-(\\d{6})\\.wwj");
+    // Sanity limit on a single record, anything larger is treated as corruption
+    static final int MAX_PAYLOAD = 4096;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+
+    private FileChannel channel = null;
+    private int segmentNumber = 0;
+    private long segmentSize = 0;
+
+    JournalSegments(Path directory, long maxSegmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    /**
+     * Opens the newest segment for appending, recovering its tail, or creates the first one.
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segments = listSegments();
+        segmentNumber = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        openSegment(segmentNumber);
+    }
+
+    /**
+     * Writes a buffer of complete records, rotating first if the current segment would grow past its limit.
+     *
+     * @param records Buffer in read mode holding whole records
+     */
+    void write(ByteBuffer records) throws IOException {
+        if (segmentSize > 0 && segmentSize + records.remaining() > maxSegmentBytes) {
+            rotate();
+        }
+        while (records.hasRemaining()) {
+            segmentSize += channel.write(records);
+        }
+    }
+
+    /**
+     * Starts a new segment after the newest one, e.g. to get away from a segment that failed to write.
+     */
+    void openNext() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segments = listSegments();
+        if (!segments.isEmpty()) {
+            segmentNumber = Math.max(segmentNumber, segments.get(segments.size() - 1));
+        }
+        segmentNumber++;
+        openSegment(segmentNumber);
+        deleteOldSegments();
+    }
+
+    boolean isOpen() {
+        return channel != null;
+    }
+
+    void close() throws IOException {
+        if (channel != null) {
+            FileChannel closing = channel;
+            channel = null;
+            try {
+                closing.force(false);
+            } finally {
+                closing.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the current segment after a failure, ignoring any further error.
+     */
+    void abandon() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // Already failing, the caller reports the original error
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        segmentNumber++;
+        openSegment(segmentNumber);
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        // Drop the oldest segments beyond the retention limit
+        List<Integer> segments = listSegments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(segments.get(i)));
+        }
+    }
+
+    private void openSegment(int number) throws IOException {
+        Path file = segmentPath(number);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentSize = recoverTail(channel);
+        channel.truncate(segmentSize);
+        channel.position(segmentSize);
+    }
+
+    /**
+     * Finds the end of the last intact record in a segment.
+     */
+    private static long recoverTail(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(4);
+        ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD + 4);
+        CRC32 crc = new CRC32();
+        long position = 0;
+        while (position + 4 <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.flip().getInt();
+            if (length <= 0 || length > MAX_PAYLOAD || position + 4 + length + 4 > size) break;
+
+            payload.clear().limit(length + 4);
+            while (payload.hasRemaining() && channel.read(payload, position + 4 + payload.position()) >= 0) {
+                // Keep reading until the record and its checksum are in the buffer
+            }
+            payload.flip();
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != payload.getInt(length)) break;
+
+            position += 4 + length + 4;
+        }
+        if (position < size) {
+            ErrorReporter.warn(Feature.STORAGE, "Recovered visit journal tail, dropped " + (size - position) + " bytes of incomplete records");
+        }
+        return position;
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("visits-%06d.wwj", number));
+    }
+
+    /**
+     * @return Segment numbers present in the directory, oldest first
+     */
+    List<Integer> listSegments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
@@ -0,0 +1,316 @@
+package me.jamino.wynnWanderer.journal;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import me.jamino.wynnWanderer.features.TerritoryArea;
+import me.jamino.wynnWanderer.features.TerritoryEvent;
+import me.jamino.wynnWanderer.features.TerritoryEvents;
+import me.jamino.wynnWanderer.features.TerritoryIds;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only travel history: every territory entry and exit with its timestamp,
+ * territory name and, for exits, how long the player stayed.
+ *
+ * <p>The client thread only copies each transition into a preallocated {@link VisitQueue}.
+ * A background writer drains the queue in batches, encodes the records into a reused buffer and
+ * appends them to size-rotated segment files in {@code config/wynn-wanderer/journal}.
+ * If the writer falls behind and the queue fills up, new records are dropped and counted
+ * rather than blocking the client. A failed write is retried on a fresh segment with backoff;
+ * if it keeps failing the journal switches itself off.</p>
+ *
+ * <p>Record payload (big-endian): long epoch millis, byte type (1 = enter, 2 = leave),
+ * long dwell millis, then the UTF-8 territory name prefixed with its length as an unsigned short.</p>
+ */
+public final class VisitJournal {
+    public static final byte ENTER = 1;
+    public static final byte LEAVE = 2;
+
+    private static final int QUEUE_CAPACITY = 1024;
+    // The writer is woken early once this many records are waiting
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 4 + JournalSegments.MAX_PAYLOAD + 4;
+    private static final int MAX_NAME_BYTES = JournalSegments.MAX_PAYLOAD - 8 - 1 - 8 - 2;
+    // Failed writes are retried after 1, 2, 4, ... seconds, up to this many times in a row
+    private static final long RETRY_DELAY_NANOS = 1_000_000_000L;
+    private static final int MAX_RETRIES = 6;
+    // How long the game waits for the last records to be written when it closes
+    private static final long SHUTDOWN_WAIT_MILLIS = 2000;
+
+    private static volatile VisitJournal active = null;
+    private static boolean registered = false;
+
+    private final VisitQueue queue = new VisitQueue(QUEUE_CAPACITY);
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+    private final JournalSegments segments;
+    private final Thread writer;
+    // Writer of the journal this one replaced, which may still be finishing its last write.
+    // Dropped once it has exited, so replaced journals don't keep each other alive
+    private Thread predecessor;
+    private volatile boolean running = true;
+    private volatile long droppedRecords = 0;
+
+    // Writer thread state. A batch stays in the buffer until it has been written, so it survives a retry
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private boolean hasPendingBatch = false;
+
+    // Client thread state: when the current territory was entered
+    private int currentTerritoryId = -1;
+    private long enteredAtMillis = 0;
+
+    private VisitJournal(Path directory, long maxSegmentBytes, int maxSegments, Thread predecessor) {
+        this.directory = directory;
+        this.predecessor = predecessor;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+        this.segments = new JournalSegments(directory, maxSegmentBytes, maxSegments);
+        this.writer = new Thread(this::runWriter, "wynn-wanderer-journal");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Hooks the journal into territory transitions. The journal itself only runs once
+     * {@link #configure} enables it.
+     */
+    public static void register() {
+        if (registered) return;
+        registered = true;
+
+        TerritoryEvents.LEAVE.register(event -> {
+            VisitJournal journal = active;
+            if (journal != null) journal.onLeave(event);
+        });
+        TerritoryEvents.ENTER.register(event -> {
+            VisitJournal journal = active;
+            if (journal != null) journal.onEnter(event);
+        });
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> stop());
+    }
+
+    /**
+     * Starts, restarts or stops the journal.
+     *
+     * @param enabled         Whether to record visits
+     * @param directory       Directory holding the segment files
+     * @param maxSegmentBytes Size at which a new segment is started
+     * @param maxSegments     Number of segments kept, older ones are deleted
+     */
+    public static synchronized void configure(boolean enabled, Path directory, long maxSegmentBytes, int maxSegments) {
+        maxSegmentBytes = Math.max(BUFFER_SIZE, maxSegmentBytes);
+        VisitJournal previous = active;
+        // Keep the running writer when nothing relevant changed
+        if (enabled && previous != null && previous.directory.equals(directory)
+                && previous.maxSegmentBytes == maxSegmentBytes && previous.maxSegments == maxSegments) {
+            return;
+        }
+
+        active = null;
+        if (previous != null) {
+            // Returns straight away, the new writer waits for the old one before touching the files
+            previous.shutdown();
+        }
+        if (enabled) {
+            VisitJournal journal = new VisitJournal(directory, maxSegmentBytes, maxSegments,
+                    previous == null ? null : previous.writer);
+            journal.writer.start();
+            active = journal;
+        }
+    }
+
+    /**
+     * Stops the journal and waits a short while for the remaining records to be written.
+     * Only used when the game closes.
+     */
+    private static void stop() {
+        VisitJournal previous;
+        synchronized (VisitJournal.class) {
+            previous = active;
+            configure(false, null, 0, 0);
+        }
+        if (previous != null) {
+            try {
+                previous.writer.join(SHUTDOWN_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Switches the journal off after its writer gave up, so no more records are queued for it.
+     */
+    private static synchronized void deactivate(VisitJournal journal) {
+        if (active == journal) {
+            active = null;
+        }
+    }
+
+    /**
+     * @return Records dropped so far because the writer fell behind, 0 if the journal is off
+     */
+    public static long getDroppedRecords() {
+        VisitJournal journal = active;
+        return journal == null ? 0 : journal.droppedRecords;
+    }
+
+    private void onEnter(TerritoryEvent event) {
+        TerritoryArea territory = event.getTo();
+        long now = System.currentTimeMillis();
+        currentTerritoryId = territory.id();
+        enteredAtMillis = now;
+        enqueue(now, ENTER, territory.id(), 0);
+    }
+
+    private void onLeave(TerritoryEvent event) {
+        TerritoryArea territory = event.getFrom();
+        long now = System.currentTimeMillis();
+        // Dwell time is unknown for a territory entered before the journal started
+        long dwell = territory.id() == currentTerritoryId ? now - enteredAtMillis : 0;
+        currentTerritoryId = -1;
+        enqueue(now, LEAVE, territory.id(), dwell);
+    }
+
+    private void enqueue(long timestamp, byte type, int territoryId, long dwell) {
+        if (!queue.offer(timestamp, type, territoryId, dwell)) {
+            droppedRecords++;
+            return;
+        }
+        if (queue.size() >= BATCH_SIZE) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Tells the writer to write what is left and exit, without waiting for it.
+     */
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+    }
+
+    private void runWriter() {
+        try {
+            awaitPredecessor();
+            int failures = 0;
+            while (true) {
+                // Read before flushing, so the last flush covers everything queued before shutdown
+                boolean stopping = !running;
+                try {
+                    if (!segments.isOpen()) {
+                        // After a failure, continue in a fresh segment rather than the one that failed
+                        if (failures == 0) {
+                            segments.open();
+                        } else {
+                            segments.openNext();
+                        }
+                    }
+                    flush();
+                    failures = 0;
+                } catch (IOException e) {
+                    segments.abandon();
+                    failures++;
+                    if (failures > MAX_RETRIES || stopping) {
+                        ErrorReporter.report(Feature.STORAGE, "Error writing visit journal, visits will not be recorded", e);
+                        return;
+                    }
+                    ErrorReporter.report(Feature.STORAGE, "Error writing visit journal, retrying", e);
+                }
+                if (stopping) return;
+
+                if (failures == 0) {
+                    LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+                } else {
+                    backOff(RETRY_DELAY_NANOS << (failures - 1));
+                }
+            }
+        } finally {
+            // Nothing drains the queue any more, so stop filling it
+            running = false;
+            deactivate(this);
+            try {
+                segments.close();
+            } catch (IOException e) {
+                ErrorReporter.report(Feature.STORAGE, "Error closing visit journal", e);
+            }
+        }
+    }
+
+    private void awaitPredecessor() {
+        if (predecessor == null) return;
+        try {
+            predecessor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        predecessor = null;
+    }
+
+    /**
+     * Waits before retrying a failed write. Unlike the regular wait a full batch doesn't end it early,
+     * only shutdown does.
+     */
+    private void backOff(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Drains the queue into the buffer and appends it, one write per full buffer.
+     * A batch that failed to write is written again first.
+     */
+    private void flush() throws IOException {
+        while (true) {
+            if (hasPendingBatch) {
+                // Resend the whole batch, the failed segment is left with at most a partial record
+                buffer.rewind();
+            } else {
+                if (queue.size() == 0) return;
+                buffer.clear();
+                while (buffer.remaining() >= MAX_RECORD_SIZE && queue.poll(this::encode)) {
+                    // encode appends each record to the buffer
+                }
+                buffer.flip();
+                hasPendingBatch = true;
+            }
+            segments.write(buffer);
+            hasPendingBatch = false;
+        }
+    }
+
+    private void encode(long timestamp, byte type, int territoryId, long dwellMillis) {
+        String name = TerritoryIds.name(territoryId);
+        byte[] nameBytes = (name == null ? "" : name).getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(nameBytes.length, MAX_NAME_BYTES);
+        int payloadLength = 8 + 1 + 8 + 2 + nameLength;
+
+        int start = buffer.position();
+        buffer.putInt(payloadLength);
+        buffer.putLong(timestamp);
+        buffer.put(type);
+        buffer.putLong(dwellMillis);
+        buffer.putShort((short) nameLength);
+        buffer.put(nameBytes, 0, nameLength);
+
+        // Checksum the payload just written
+        crc.reset();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + 4).limit(start + 4 + payloadLength);
+        crc.update(payload);
+        buffer.putInt((int) crc.getValue());
+    }
+}
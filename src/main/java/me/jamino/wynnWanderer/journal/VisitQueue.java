@@ -0,0 +1,76 @@
+package me.jamino.wynnWanderer.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of visit records between the client thread and the journal writer.
+ * Records live in preallocated parallel arrays, so offering and polling never allocate.
+ *
+ * <p>Single producer, single consumer: only the client thread may call {@link #offer}
+ * and only the writer thread may call {@link #poll}.</p>
+ */
+final class VisitQueue {
+    private final int mask;
+    private final long[] timestamps;
+    private final byte[] types;
+    private final int[] territoryIds;
+    private final long[] dwellMillis;
+
+    // Next slot to write and next slot to read, published with ordered writes
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Maximum queued records, rounded up to a power of two
+     */
+    VisitQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        timestamps = new long[size];
+        types = new byte[size];
+        territoryIds = new int[size];
+        dwellMillis = new long[size];
+    }
+
+    /**
+     * Adds a record.
+     *
+     * @return false if the queue is full and the record was dropped
+     */
+    boolean offer(long timestamp, byte type, int territoryId, long dwell) {
+        long t = tail.get();
+        if (t - head.get() > mask) return false;
+
+        int slot = (int) (t & mask);
+        timestamps[slot] = timestamp;
+        types[slot] = type;
+        territoryIds[slot] = territoryId;
+        dwellMillis[slot] = dwell;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest record and hands it to the consumer.
+     *
+     * @return false if the queue is empty
+     */
+    boolean poll(Consumer consumer) {
+        long h = head.get();
+        if (h == tail.get()) return false;
+
+        int slot = (int) (h & mask);
+        consumer.accept(timestamps[slot], types[slot], territoryIds[slot], dwellMillis[slot]);
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    @FunctionalInterface
+    interface Consumer {
+        void accept(long timestamp, byte type, int territoryId, long dwellMillis);
+    }
+}
@@ -0,0 +1,114 @@
+package me.jamino.wynnWanderer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with fixed power-of-two buckets.
+ * Bucket 0 holds everything under 512ns, bucket i covers [2^(i+8), 2^(i+9)) nanoseconds and
+ * the last bucket holds everything slower. Recording is a few atomic adds and never allocates.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 20;
+    private static final int FIRST_BUCKET_SHIFT = 9;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the time elapsed since a timer was started.
+     *
+     * @param startNanos The value returned by {@link Metrics#startTimer()}, 0 records nothing
+     */
+    public void recordSince(long startNanos) {
+        if (startNanos == 0) return;
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a duration if metrics are enabled.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (!Metrics.isEnabled()) return;
+
+        nanos = Math.max(0, nanos);
+        int bucket = Math.min(BUCKETS - 1, Math.max(0, 63 - Long.numberOfLeadingZeros(nanos) - FIRST_BUCKET_SHIFT + 1));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) totalNanos.get() / n;
+    }
+
+    /**
+     * Estimates a percentile from the buckets.
+     *
+     * @param percentile The percentile from 0 to 100
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+
+        long target = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return 1L << (i + FIRST_BUCKET_SHIFT);
+            }
+        }
+        return maxNanos.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Formats the histogram as a single line, for example
+     * {@code checkTerritory: n=1200 mean=1.4us p50<2.0us p99<16.4us max=40.1us}.
+     *
+     * @return The formatted summary
+     */
+    public String format() {
+        return String.format("%s: n=%d mean=%s p50<%s p99<%s max=%s", name, getCount(),
+                formatNanos(getMeanNanos()), formatNanos(getPercentileNanos(50)),
+                formatNanos(getPercentileNanos(99)), formatNanos(getMaxNanos()));
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos >= 1_000_000) return String.format("%.2fms", nanos / 1_000_000);
+        return String.format("%.1fus", nanos / 1_000);
+    }
+}
@@ -0,0 +1,117 @@
+package me.jamino.wynnWanderer.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registry of the counters and latency histograms recorded by the territory pipeline.
+ *
+ * <p>Collection is off by default. While disabled, {@link #startTimer()} returns 0 and every
+ * record or increment call returns after a single volatile read, so instrumented code costs
+ * effectively nothing.</p>
+ *
+ * <pre>{@code
+ * long start = Metrics.startTimer();
+ * doWork();
+ * Metrics.CHECK_TERRITORY.recordSince(start);
+ * }</pre>
+ */
+public final class Metrics {
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+    private static final List<LatencyHistogram> HISTOGRAMS = new ArrayList<>();
+
+    private static volatile boolean enabled = false;
+
+    // Timings
+    public static final LatencyHistogram CHECK_TERRITORY = histogram("checkTerritory");
+    public static final LatencyHistogram TERRITORY_LOOKUP = histogram("territoryLookup");
+    public static final LatencyHistogram SHOW_TITLE = histogram("showTitle");
+    public static final LatencyHistogram RENDER_TITLE = histogram("renderTitle");
+
+    // Territory checks
+    public static final Counter CHECKS = counter("checks");
+    public static final Counter CHECKS_SKIPPED = counter("checksSkipped");
+    public static final Counter TRANSITIONS = counter("transitions");
+    public static final Counter TITLES_SHOWN = counter("titlesShown");
+
+    // Caches
+    public static final Counter COOLDOWN_HITS = counter("cooldownHits");
+    public static final Counter COOLDOWN_MISSES = counter("cooldownMisses");
+    public static final Counter TITLE_CACHE_HITS = counter("titleCacheHits");
+    public static final Counter TITLE_CACHE_MISSES = counter("titleCacheMisses");
+
+    private Metrics() {
+    }
+
+    private static Counter counter(String name) {
+        Counter counter = new Counter(name);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    private static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = new LatencyHistogram(name);
+        HISTOGRAMS.add(histogram);
+        return histogram;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns collection on or off. Values recorded so far are kept.
+     *
+     * @param enabled Whether to collect metrics
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Reads the clock if collection is enabled.
+     *
+     * @return The current {@link System#nanoTime()}, or 0 if metrics are disabled
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reset() {
+        for (Counter counter : COUNTERS) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+    }
+
+    public static List<Counter> getCounters() {
+        return Collections.unmodifiableList(COUNTERS);
+    }
+
+    public static List<LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableList(HISTOGRAMS);
+    }
+
+    /**
+     * Formats every metric as one line each, histograms first and startup times last.
+     *
+     * @return The formatted lines
+     */
+    public static List<String> format() {
+        List<String> lines = new ArrayList<>(HISTOGRAMS.size() + COUNTERS.size() + 1);
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            lines.add(histogram.format());
+        }
+        for (Counter counter : COUNTERS) {
+            lines.add(counter.getName() + ": " + counter.get());
+        }
+        lines.add(StartupTimer.format());
+        return lines;
+    }
+}
@@ -0,0 +1,115 @@
+package me.jamino.wynnWanderer.metrics;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.Text;
+
+import java.util.List;
+
+/**
+ * Shows {@link Metrics} on the HUD and through the {@code /wynnwanderer metrics} client command.
+ *
+ * <ul>
+ *     <li>{@code /wynnwanderer metrics} prints every metric to chat</li>
+ *     <li>{@code /wynnwanderer metrics overlay} toggles the HUD overlay</li>
+ *     <li>{@code /wynnwanderer metrics on|off} turns collection on or off</li>
+ *     <li>{@code /wynnwanderer metrics reset} clears all values</li>
+ * </ul>
+ */
+public final class MetricsOverlay {
+    // The overlay text is rebuilt at most this often, so drawing it does not skew what it measures
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final int LINE_HEIGHT = 10;
+
+    private static volatile boolean overlayVisible = false;
+    private static List<String> lines = List.of();
+    private static long lastRefreshNanos = 0;
+
+    private MetricsOverlay() {
+    }
+
+    /**
+     * Registers the HUD overlay and the client command.
+     */
+    public static void register() {
+        HudRenderCallback.EVENT.register((drawContext, renderTickCounter) -> render(drawContext));
+        ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> registerCommand(dispatcher));
+    }
+
+    /**
+     * Shows or hides the overlay. Showing it also turns collection on.
+     *
+     * @param visible Whether the overlay is visible
+     */
+    public static void setOverlayVisible(boolean visible) {
+        overlayVisible = visible;
+        if (visible) {
+            Metrics.setEnabled(true);
+        }
+    }
+
+    public static boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    private static void render(DrawContext drawContext) {
+        if (!overlayVisible) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc.getDebugHud().shouldShowDebugHud()) return;
+
+        long now = System.nanoTime();
+        if (now - lastRefreshNanos >= REFRESH_NANOS) {
+            lastRefreshNanos = now;
+            lines = Metrics.format();
+        }
+
+        int y = 4;
+        for (String line : lines) {
+            drawContext.drawText(mc.textRenderer, line, 4, y, 0xFFFFFFFF, true);
+            y += LINE_HEIGHT;
+        }
+    }
+
+    private static void registerCommand(CommandDispatcher<FabricClientCommandSource> dispatcher) {
+        dispatcher.register(ClientCommandManager.literal("wynnwanderer")
+                .then(ClientCommandManager.literal("metrics")
+                        .executes(context -> {
+                            FabricClientCommandSource source = context.getSource();
+                            if (!Metrics.isEnabled()) {
+                                source.sendFeedback(Text.translatable("wynn_wanderer.metrics.off"));
+                            }
+                            for (String line : Metrics.format()) {
+                                source.sendFeedback(Text.literal(line));
+                            }
+                            return 1;
+                        })
+                        .then(ClientCommandManager.literal("overlay").executes(context -> {
+                            setOverlayVisible(!overlayVisible);
+                            context.getSource().sendFeedback(Text.translatable(overlayVisible
+                                    ? "wynn_wanderer.metrics.overlay_shown" : "wynn_wanderer.metrics.overlay_hidden"));
+                            return 1;
+                        }))
+                        .then(ClientCommandManager.literal("on").executes(context -> {
+                            Metrics.setEnabled(true);
+                            context.getSource().sendFeedback(Text.translatable("wynn_wanderer.metrics.enabled"));
+                            return 1;
+                        }))
+                        .then(ClientCommandManager.literal("off").executes(context -> {
+                            Metrics.setEnabled(false);
+                            overlayVisible = false;
+                            context.getSource().sendFeedback(Text.translatable("wynn_wanderer.metrics.disabled"));
+                            return 1;
+                        }))
+                        .then(ClientCommandManager.literal("reset").executes(context -> {
+                            Metrics.reset();
+                            context.getSource().sendFeedback(Text.translatable("wynn_wanderer.metrics.reset"));
+                            return 1;
+                        }))));
+    }
+}
@@ -0,0 +1,43 @@
+package me.jamino.wynnWanderer.metrics;
+
+import java.util.Locale;
+
+/**
+ * Time spent in the mod's two startup phases: the eager phase at mod load, which should stay
+ * well under a millisecond, and the deferred phase that loads everything else on first join.
+ * Recorded regardless of whether metrics collection is on, since startup happens before the config is read.
+ */
+public final class StartupTimer {
+    private static volatile long eagerNanos = -1;
+    private static volatile long deferredNanos = -1;
+
+    private StartupTimer() {
+    }
+
+    public static void recordEager(long nanos) {
+        eagerNanos = nanos;
+    }
+
+    public static void recordDeferred(long nanos) {
+        deferredNanos = nanos;
+    }
+
+    /**
+     * Formats a duration in milliseconds with enough precision for sub-millisecond phases.
+     *
+     * @param nanos The duration in nanoseconds
+     * @return The duration, e.g. "0.214"
+     */
+    public static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * @return One line with both phases, for the metrics output
+     */
+    public static String format() {
+        long deferred = deferredNanos;
+        return "startup: " + formatMillis(eagerNanos) + " ms at load, "
+                + (deferred < 0 ? "rest not loaded yet" : formatMillis(deferred) + " ms on first join");
+    }
+}
@@ -0,0 +1,24 @@
+package me.jamino.wynnWanderer.mixin;
+
+import me.jamino.wynnWanderer.features.PlayerMovementTracker;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Hooks the single method every entity position change goes through, so the local player's
+ * movement and teleports reach {@link PlayerMovementTracker} as they happen.
+ */
+@Mixin(Entity.class)
+public abstract class EntityMixin {
+    @Inject(method = "setPos(DDD)V", at = @At("TAIL"))
+    private void wynnWanderer$onSetPos(double x, double y, double z, CallbackInfo ci) {
+        // Cheap field check first, this runs for every entity in the world
+        if (PlayerMovementTracker.isEnabled() && (Object) this instanceof ClientPlayerEntity) {
+            PlayerMovementTracker.onPositionSet(x, z);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package me.jamino.wynnWanderer.replay;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary format for per-tick player movement traces.
+ *
+ * <p>Layout: magic {@code WWMT}, int version, long start time in epoch millis, then one record
+ * per run of ticks. Positions are fixed point in sixteenths of a block. Most ticks are a small
+ * delta from the previous one or no movement at all, so a trace costs a few bytes per tick:</p>
+ * <ul>
+ *     <li>{@code ABSOLUTE x z} - one tick at an absolute position (two ints), written first and after gaps</li>
+ *     <li>{@code DELTA dx dz} - one tick moved by a zigzag varint delta</li>
+ *     <li>{@code IDLE n} - n ticks without movement (varint)</li>
+ *     <li>{@code GAP n} - n ticks while not in a world (varint)</li>
+ * </ul>
+ */
+public final class MovementTrace {
+    static final int MAGIC = 0x57574D54; // "WWMT"
+    static final int VERSION = 1;
+    static final double UNITS_PER_BLOCK = 16.0;
+
+    private static final byte ABSOLUTE = 0;
+    private static final byte DELTA = 1;
+    private static final byte IDLE = 2;
+    private static final byte GAP = 3;
+
+    private MovementTrace() {
+    }
+
+    /**
+     * Writes a trace one tick at a time, buffering records and writing them in large chunks.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_SIZE = 64 * 1024;
+        // Largest record: tag plus two ints
+        private static final int MAX_RECORD_SIZE = 1 + 2 * 5;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private boolean hasPosition = false;
+        private int lastX;
+        private int lastZ;
+        private int idleTicks = 0;
+        private int gapTicks = 0;
+
+        /**
+         * Creates a trace file, replacing any existing file at the path.
+         *
+         * @param file             The trace file
+         * @param startEpochMillis When recording started
+         * @throws IOException If the file cannot be created
+         */
+        public Writer(Path file, long startEpochMillis) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(startEpochMillis);
+        }
+
+        /**
+         * Records the player's position for one tick.
+         */
+        public void position(double x, double z) throws IOException {
+            int fixedX = (int) Math.round(x * UNITS_PER_BLOCK);
+            int fixedZ = (int) Math.round(z * UNITS_PER_BLOCK);
+            if (hasPosition && fixedX == lastX && fixedZ == lastZ) {
+                idleTicks++;
+                return;
+            }
+
+            flushRuns();
+            ensureSpace();
+            if (hasPosition) {
+                buffer.put(DELTA);
+                putVarInt(zigzag(fixedX - lastX));
+                putVarInt(zigzag(fixedZ - lastZ));
+            } else {
+                buffer.put(ABSOLUTE).putInt(fixedX).putInt(fixedZ);
+            }
+            hasPosition = true;
+            lastX = fixedX;
+            lastZ = fixedZ;
+        }
+
+        /**
+         * Records one tick without a position, for example while not in a world.
+         * The next position is written in full.
+         */
+        public void gap() throws IOException {
+            if (idleTicks > 0) flushRuns();
+            gapTicks++;
+            hasPosition = false;
+        }
+
+        private void flushRuns() throws IOException {
+            if (idleTicks > 0) {
+                ensureSpace();
+                buffer.put(IDLE);
+                putVarInt(idleTicks);
+                idleTicks = 0;
+            }
+            if (gapTicks > 0) {
+                ensureSpace();
+                buffer.put(GAP);
+                putVarInt(gapTicks);
+                gapTicks = 0;
+            }
+        }
+
+        private void ensureSpace() throws IOException {
+            if (buffer.remaining() < MAX_RECORD_SIZE) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void putVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private static int zigzag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushRuns();
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads a trace back one tick at a time.
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final long startEpochMillis;
+        private boolean onWorld = false;
+        private int x;
+        private int z;
+        private int idleRemaining = 0;
+        private int gapRemaining = 0;
+
+        /**
+         * Reads a whole trace file into memory.
+         *
+         * @param file The trace file
+         * @throws IOException If the file cannot be read or is not a trace
+         */
+        public Reader(Path file) throws IOException {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a movement trace: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported movement trace version " + version);
+            }
+            startEpochMillis = buffer.getLong();
+        }
+
+        /**
+         * Advances to the next tick.
+         *
+         * @return false once the trace has ended
+         * @throws IOException If the trace is truncated mid-record
+         */
+        public boolean next() throws IOException {
+            if (idleRemaining > 0) {
+                idleRemaining--;
+                return true;
+            }
+            if (gapRemaining > 0) {
+                gapRemaining--;
+                return true;
+            }
+            if (!buffer.hasRemaining()) return false;
+
+            try {
+                byte tag = buffer.get();
+                switch (tag) {
+                    case ABSOLUTE -> {
+                        x = buffer.getInt();
+                        z = buffer.getInt();
+                        onWorld = true;
+                    }
+                    case DELTA -> {
+                        x += unzigzag(getVarInt());
+                        z += unzigzag(getVarInt());
+                        onWorld = true;
+                    }
+                    case IDLE -> idleRemaining = getVarInt() - 1;
+                    case GAP -> {
+                        gapRemaining = getVarInt() - 1;
+                        onWorld = false;
+                    }
+                    default -> throw new IOException("Unknown movement trace record " + tag);
+                }
+            } catch (BufferUnderflowException e) {
+                throw new EOFException("Movement trace ends mid-record");
+            }
+            return true;
+        }
+
+        /**
+         * @return Whether the player was in a world this tick, the position is only valid if so
+         */
+        public boolean isOnWorld() {
+            return onWorld;
+        }
+
+        public double getX() {
+            return x / UNITS_PER_BLOCK;
+        }
+
+        public double getZ() {
+            return z / UNITS_PER_BLOCK;
+        }
+
+        public long getStartEpochMillis() {
+            return startEpochMillis;
+        }
+
+        private int getVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private static int unzigzag(int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
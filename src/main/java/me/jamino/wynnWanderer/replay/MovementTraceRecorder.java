@@ -0,0 +1,121 @@
+package me.jamino.wynnWanderer.replay;
+
+import com.mojang.brigadier.CommandDispatcher;
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import me.jamino.wynnWanderer.features.WorldStateTracker;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Records the player's position every tick to a movement trace, for replaying detection
+ * offline with {@link TraceReplay}. Controlled with {@code /wynnwanderer trace start|stop}.
+ *
+ * <p>Traces are written to {@code config/wynn-wanderer/traces}. Records are buffered in memory
+ * and written in 64 KiB chunks, roughly once every few thousand ticks of movement.</p>
+ */
+public final class MovementTraceRecorder {
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static Path traceDirectory;
+    private static MovementTrace.Writer writer = null;
+    private static Path currentFile = null;
+
+    private MovementTraceRecorder() {
+    }
+
+    /**
+     * Registers the tick hook and the client command.
+     *
+     * @param directory Directory new traces are written to
+     */
+    public static void register(Path directory) {
+        traceDirectory = directory;
+        ClientTickEvents.END_CLIENT_TICK.register(MovementTraceRecorder::tick);
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> stop());
+        ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> registerCommand(dispatcher));
+    }
+
+    public static boolean isRecording() {
+        return writer != null;
+    }
+
+    /**
+     * Starts recording to a new trace file named after the current time.
+     *
+     * @return The trace file
+     * @throws IOException If the file cannot be created
+     */
+    public static Path start() throws IOException {
+        stop();
+        Path file = traceDirectory.resolve("trace_" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".wwt");
+        writer = new MovementTrace.Writer(file, System.currentTimeMillis());
+        currentFile = file;
+        return file;
+    }
+
+    /**
+     * Stops recording and closes the trace file.
+     *
+     * @return The finished trace file, or null if nothing was being recorded
+     */
+    public static Path stop() {
+        if (writer == null) return null;
+
+        Path file = currentFile;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            ErrorReporter.report(Feature.STORAGE, "Error closing movement trace '" + file + "'", e);
+        }
+        writer = null;
+        currentFile = null;
+        return file;
+    }
+
+    private static void tick(MinecraftClient client) {
+        if (writer == null) return;
+
+        try {
+            if (client.player != null && WorldStateTracker.isOnWorld()) {
+                writer.position(client.player.getX(), client.player.getZ());
+            } else {
+                writer.gap();
+            }
+        } catch (IOException e) {
+            ErrorReporter.report(Feature.STORAGE, "Error writing movement trace, recording stopped", e);
+            stop();
+        }
+    }
+
+    private static void registerCommand(CommandDispatcher<FabricClientCommandSource> dispatcher) {
+        dispatcher.register(ClientCommandManager.literal("wynnwanderer")
+                .then(ClientCommandManager.literal("trace")
+                        .then(ClientCommandManager.literal("start").executes(context -> {
+                            try {
+                                Path file = start();
+                                context.getSource().sendFeedback(Text.translatable("wynn_wanderer.trace.started", file.getFileName().toString()));
+                            } catch (IOException e) {
+                                context.getSource().sendError(Text.translatable("wynn_wanderer.trace.start_failed", String.valueOf(e.getMessage())));
+                            }
+                            return 1;
+                        }))
+                        .then(ClientCommandManager.literal("stop").executes(context -> {
+                            Path file = stop();
+                            context.getSource().sendFeedback(file == null
+                                    ? Text.translatable("wynn_wanderer.trace.not_recording")
+                                    : Text.translatable("wynn_wanderer.trace.saved", file.getFileName().toString()));
+                            return 1;
+                        }))));
+    }
+}
@@ -0,0 +1,272 @@
+package me.jamino.wynnWanderer.replay;
+
+import me.jamino.wynnWanderer.config.WynnWandererConfig;
+import me.jamino.wynnWanderer.features.DetectionTrigger;
+import me.jamino.wynnWanderer.features.LookAheadMode;
+import me.jamino.wynnWanderer.features.PlayerMovementTracker;
+import me.jamino.wynnWanderer.features.PositionSample;
+import me.jamino.wynnWanderer.features.SignificantTerritoryManager;
+import me.jamino.wynnWanderer.features.TerritoryArea;
+import me.jamino.wynnWanderer.features.TerritoryBorderIndex;
+import me.jamino.wynnWanderer.features.TerritoryCache;
+import me.jamino.wynnWanderer.features.TerritoryDetector;
+import me.jamino.wynnWanderer.features.TerritoryIds;
+import me.jamino.wynnWanderer.features.TerritoryIndex;
+import me.jamino.wynnWanderer.features.TerritoryLookAhead;
+import me.jamino.wynnWanderer.features.TerritorySnapshot;
+import me.jamino.wynnWanderer.features.TitleSettings;
+import net.minecraft.util.math.MathHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Replays a movement trace through the same detection logic the client uses, without Minecraft running.
+ *
+ * <p>Every tick the true territory is looked up directly and compared with what the detector
+ * reports, giving the detection latency after each border crossing. Crossings the detector never
+ * reported, because the player left again before the next check, are counted as missed.
+ * Titles are simulated with their on-screen duration, so cooldown, significance and priority
+ * suppression all show up. Resolution always runs synchronously here; async resolution adds up
+ * to one tick of latency on top.</p>
+ *
+ * <pre>
+ * ./gradlew replayTrace -Ptrace=trace.wwt -Pterritories=territories.bin -PreplayArgs="--max-interval 10"
+ * </pre>
+ *
+ * Options: {@code --min-interval}, {@code --max-interval}, {@code --cooldown}, {@code --cache-size}
+ * (all in ticks or entries), {@code --look-ahead <ticks>} to schedule checks from the border look-ahead,
+ * {@code --trigger <polling|movement|both>} to choose what starts a check,
+ * {@code --all-territories} to show titles for every territory and
+ * {@code --registry <file>} to use a different significant territory registry.
+ */
+public final class TraceReplay {
+    private static final int TICKS_PER_MINUTE = 20 * 60;
+
+    private TraceReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TraceReplay <trace.wwt> <territories.bin> [options]");
+            System.exit(1);
+        }
+
+        WynnWandererConfig.TerritoryTitlesConfig config = new WynnWandererConfig.TerritoryTitlesConfig();
+        Path registryFile = null;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--min-interval" -> config.detection.minCheckInterval = Integer.parseInt(args[++i]);
+                case "--max-interval" -> config.detection.maxCheckInterval = Integer.parseInt(args[++i]);
+                case "--cooldown" -> config.animation.textCooldownTime = Integer.parseInt(args[++i]);
+                case "--cache-size" -> config.animation.recentTerritoryCacheSize = Integer.parseInt(args[++i]);
+                case "--look-ahead" -> {
+                    config.detection.lookAhead = LookAheadMode.PRESTAGE;
+                    config.detection.lookAheadTicks = Integer.parseInt(args[++i]);
+                }
+                case "--trigger" -> config.detection.trigger = DetectionTrigger.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "--all-territories" -> config.showOnlySignificantTerritories = false;
+                case "--registry" -> registryFile = Path.of(args[++i]);
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+
+        loadRegistry(registryFile);
+        List<TerritoryArea> areas = TerritorySnapshot.read(Path.of(args[1]));
+        if (areas.isEmpty()) {
+            System.err.println("No territories in " + args[1]);
+            System.exit(1);
+        }
+
+        Result result = replay(new MovementTrace.Reader(Path.of(args[0])), areas, TitleSettings.from(config));
+        result.print(System.out);
+    }
+
+    private static void loadRegistry(Path registryFile) throws IOException {
+        if (registryFile != null) {
+            try (Reader reader = Files.newBufferedReader(registryFile, StandardCharsets.UTF_8)) {
+                SignificantTerritoryManager.load(reader);
+            }
+            return;
+        }
+
+        try (InputStream stream = TraceReplay.class.getResourceAsStream("/assets/wynn-wanderer/significant_territories.json")) {
+            if (stream == null) {
+                System.err.println("Bundled significant territory registry not found, treating no territory as significant");
+                return;
+            }
+            SignificantTerritoryManager.load(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Replays a trace and collects detection statistics.
+     *
+     * @param trace    The trace to replay
+     * @param areas    The territories to detect
+     * @param settings The settings to detect with
+     * @return The collected statistics
+     * @throws IOException If the trace is corrupt
+     */
+    public static Result replay(MovementTrace.Reader trace, List<TerritoryArea> areas, TitleSettings settings) throws IOException {
+        TerritoryIndex.Builder<TerritoryArea> builder = new TerritoryIndex.Builder<>();
+        for (TerritoryArea area : areas) {
+            builder.add(area.minX(), area.minZ(), area.maxX(), area.maxZ(), area);
+            TerritoryIds.update(area);
+        }
+        TerritoryIndex<TerritoryArea> index = builder.build();
+
+        TerritoryDetector detector = new TerritoryDetector();
+        TerritoryLookAhead lookAhead = new TerritoryLookAhead();
+        TerritoryBorderIndex borders = settings.lookAheadMode == LookAheadMode.OFF ? null : TerritoryBorderIndex.of(index);
+        TerritoryCache cache = new TerritoryCache(settings.cacheSize);
+        settings.applyTo(cache);
+        int titleTicks = settings.fadeInTime + settings.displayTime + settings.fadeOutTime;
+
+        Result result = new Result();
+        TerritoryArea trueTerritory = null;
+        long crossingTick = -1;
+        long titleEndTick = -1;
+        int titlePriority = 0;
+
+        for (long tick = 0; trace.next(); tick++) {
+            result.ticks++;
+            // The client does nothing at all while not in a world
+            if (!trace.isOnWorld()) {
+                lookAhead.reset();
+                PlayerMovementTracker.setEnabled(false);
+                continue;
+            }
+            result.worldTicks++;
+
+            double x = trace.getX();
+            double z = trace.getZ();
+            // Stands in for the movement hook, which sees every position the trace recorded
+            PlayerMovementTracker.setEnabled(settings.detectionTrigger != DetectionTrigger.POLLING);
+            if (PlayerMovementTracker.isEnabled()) {
+                PlayerMovementTracker.onPositionSet(x, z);
+            }
+
+            // Ground truth: the named territory at this exact tick
+            int truePosition = index.find(x, z);
+            TerritoryArea territory = truePosition < 0 ? null : index.valueAt(truePosition);
+            if (territory != null && !territory.hasName()) territory = null;
+            if (!Objects.equals(territory, trueTerritory)) {
+                if (crossingTick >= 0) result.missedCrossings++;
+                trueTerritory = territory;
+                result.crossings++;
+                // Stepping straight back into the territory the detector still reports needs no detection
+                crossingTick = Objects.equals(detector.getCurrentTerritory(), territory) ? -1 : tick;
+            }
+
+            if (borders != null && lookAhead.tick(borders, index, x, z, settings.lookAheadTicks)) {
+                detector.checkWithin(lookAhead.getTicksToBorder());
+            }
+
+            boolean moved = settings.detectionTrigger != DetectionTrigger.POLLING && PlayerMovementTracker.consumeMoved();
+            boolean due = settings.detectionTrigger == DetectionTrigger.MOVEMENT
+                    ? !detector.isResolved()
+                    : detector.tick(settings, x, z);
+            if (moved || due) {
+                int blockX = MathHelper.floor(x);
+                int blockZ = MathHelper.floor(z);
+                if (!detector.isStillResolved(blockX, blockZ)) {
+                    result.lookups++;
+                    PositionSample sample = new PositionSample(x, z, blockX, blockZ);
+                    if (detector.update(sample, index, index.find(x, z))) {
+                        if (crossingTick >= 0 && Objects.equals(detector.getCurrentTerritory(), trueTerritory)) {
+                            result.addLatency(tick - crossingTick);
+                            crossingTick = -1;
+                        }
+
+                        TerritoryArea entered = detector.getCurrentTerritory();
+                        if (entered != null) {
+                            int onScreenPriority = tick < titleEndTick ? titlePriority : TerritoryDetector.NO_TITLE;
+                            switch (TerritoryDetector.decideTitle(entered, settings, cache, onScreenPriority)) {
+                                case COOLDOWN -> result.suppressedByCooldown++;
+                                case NOT_SIGNIFICANT -> result.suppressedNotSignificant++;
+                                case PRIORITY -> result.suppressedByPriority++;
+                                case SHOW -> {
+                                    result.titlesShown++;
+                                    titleEndTick = tick + titleTicks;
+                                    titlePriority = TerritoryDetector.titlePriority(entered);
+                                    cache.addEntry(entered);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            cache.tick();
+        }
+        return result;
+    }
+
+    /**
+     * Statistics from one replay.
+     */
+    public static final class Result {
+        public long ticks;
+        public long worldTicks;
+        public long lookups;
+        public long crossings;
+        public long missedCrossings;
+        public long titlesShown;
+        public long suppressedByCooldown;
+        public long suppressedNotSignificant;
+        public long suppressedByPriority;
+        private long[] latencies = new long[64];
+        private int latencyCount = 0;
+
+        void addLatency(long ticks) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            }
+            latencies[latencyCount++] = ticks;
+        }
+
+        /**
+         * @return Detection latency of every detected crossing in ticks, sorted
+         */
+        public long[] getLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        public void print(PrintStream out) {
+            long[] sorted = getLatencies();
+            double minutes = Math.max(1, worldTicks) / (double) TICKS_PER_MINUTE;
+
+            out.printf("Ticks:               %d (%d in a world, %.1f minutes)%n", ticks, worldTicks, minutes);
+            out.printf("Lookups:             %d (%.1f per minute)%n", lookups, lookups / minutes);
+            out.printf("Border crossings:    %d (%d detected, %d missed)%n", crossings, sorted.length, missedCrossings);
+            if (sorted.length > 0) {
+                double mean = Arrays.stream(sorted).average().orElse(0);
+                out.printf("Detection latency:   mean %.2f, p50 %d, p95 %d, max %d ticks%n",
+                        mean, percentile(sorted, 50), percentile(sorted, 95), sorted[sorted.length - 1]);
+            }
+            out.printf("Titles shown:        %d%n", titlesShown);
+            out.printf("Titles suppressed:   %d by cooldown, %d not significant, %d by priority%n",
+                    suppressedByCooldown, suppressedNotSignificant, suppressedByPriority);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            int i = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+        }
+    }
+}
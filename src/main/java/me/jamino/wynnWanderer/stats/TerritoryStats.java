@@ -0,0 +1,198 @@
+package me.jamino.wynnWanderer.stats;
+
+import java.util.Arrays;
+
+/**
+ * Per-territory visit statistics: total time spent, visit count and first and last visit.
+ *
+ * <p>Aggregates are kept in primitive arrays indexed by territory ID and updated incrementally on
+ * each transition, the time of the ongoing visit is added whenever the stats are read or saved.
+ * A bounded heap maintained alongside them answers "top territories by time" without sorting.</p>
+ *
+ * <p>Not thread-safe, only used from the client thread. {@link TerritoryStatsSnapshot#capture}
+ * copies the data for saving elsewhere.</p>
+ */
+public final class TerritoryStats {
+    public static final int TOP_SIZE = 10;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private long[] totalMillis = new long[64];
+    private int[] visitCounts = new int[64];
+    // Wall-clock times in epoch millis, 0 if never visited
+    private long[] firstVisits = new long[64];
+    private long[] lastVisits = new long[64];
+    private final TopTerritoryHeap top = new TopTerritoryHeap(TOP_SIZE);
+
+    // Ongoing visit, timed with System.nanoTime so clock changes don't skew dwell times
+    private int currentId = -1;
+    private long visitStartNanos = 0;
+    private boolean paused = false;
+    private boolean dirty = false;
+
+    /**
+     * Starts a visit, ending the ongoing one.
+     *
+     * @param id         The entered territory's ID
+     * @param wallMillis The current wall-clock time
+     * @param nanos      The current {@link System#nanoTime()}
+     */
+    public void enter(int id, long wallMillis, long nanos) {
+        leave(nanos);
+        ensureCapacity(id);
+
+        visitCounts[id]++;
+        if (firstVisits[id] == 0) {
+            firstVisits[id] = wallMillis;
+        }
+        lastVisits[id] = wallMillis;
+        currentId = id;
+        visitStartNanos = nanos;
+        dirty = true;
+    }
+
+    /**
+     * Ends the ongoing visit, if any.
+     *
+     * @param nanos The current {@link System#nanoTime()}
+     */
+    public void leave(long nanos) {
+        flush(nanos);
+        currentId = -1;
+        paused = false;
+    }
+
+    /**
+     * Stops counting time for the ongoing visit without ending it, e.g. while the player is off the world.
+     *
+     * @param nanos The current {@link System#nanoTime()}
+     */
+    public void pause(long nanos) {
+        if (currentId < 0 || paused) return;
+        flush(nanos);
+        paused = true;
+    }
+
+    /**
+     * Continues counting time for a paused visit.
+     *
+     * @param nanos The current {@link System#nanoTime()}
+     */
+    public void resume(long nanos) {
+        if (!paused) return;
+        paused = false;
+        visitStartNanos = nanos;
+    }
+
+    /**
+     * Adds the time of the ongoing visit so far to its territory's total.
+     *
+     * @param nanos The current {@link System#nanoTime()}
+     */
+    public void flush(long nanos) {
+        if (currentId < 0 || paused) return;
+
+        long elapsedMillis = (nanos - visitStartNanos) / NANOS_PER_MILLI;
+        if (elapsedMillis <= 0) return;
+
+        // Keep the sub-millisecond remainder for the next flush
+        visitStartNanos += elapsedMillis * NANOS_PER_MILLI;
+        totalMillis[currentId] += elapsedMillis;
+        top.update(currentId, totalMillis[currentId]);
+        dirty = true;
+    }
+
+    /**
+     * Adds stored statistics for a territory, used when loading a snapshot.
+     */
+    void add(int id, long total, int visits, long firstVisit, long lastVisit) {
+        ensureCapacity(id);
+        totalMillis[id] += total;
+        visitCounts[id] += visits;
+        if (firstVisit != 0 && (firstVisits[id] == 0 || firstVisit < firstVisits[id])) {
+            firstVisits[id] = firstVisit;
+        }
+        lastVisits[id] = Math.max(lastVisits[id], lastVisit);
+        top.update(id, totalMillis[id]);
+    }
+
+    /**
+     * Clears all statistics. The ongoing visit counts as a visit starting now.
+     *
+     * @param wallMillis The current wall-clock time
+     * @param nanos      The current {@link System#nanoTime()}
+     */
+    public void reset(long wallMillis, long nanos) {
+        Arrays.fill(totalMillis, 0);
+        Arrays.fill(visitCounts, 0);
+        Arrays.fill(firstVisits, 0);
+        Arrays.fill(lastVisits, 0);
+        top.clear();
+        if (currentId >= 0) {
+            visitCounts[currentId] = 1;
+            firstVisits[currentId] = wallMillis;
+            lastVisits[currentId] = wallMillis;
+        }
+        visitStartNanos = nanos;
+        dirty = true;
+    }
+
+    /**
+     * Gets the territories with the most time spent, call {@link #flush} first to include the ongoing visit.
+     *
+     * @param out Array receiving the territory IDs, at most {@link #TOP_SIZE} are written
+     * @return The number of IDs written
+     */
+    public int topByTime(int[] out) {
+        return top.top(out);
+    }
+
+    public long getTotalMillis(int id) {
+        return id >= 0 && id < totalMillis.length ? totalMillis[id] : 0;
+    }
+
+    public int getVisitCount(int id) {
+        return id >= 0 && id < visitCounts.length ? visitCounts[id] : 0;
+    }
+
+    public long getFirstVisit(int id) {
+        return id >= 0 && id < firstVisits.length ? firstVisits[id] : 0;
+    }
+
+    public long getLastVisit(int id) {
+        return id >= 0 && id < lastVisits.length ? lastVisits[id] : 0;
+    }
+
+    /**
+     * @return The ID of the territory currently being visited, or -1
+     */
+    public int getCurrentTerritory() {
+        return currentId;
+    }
+
+    /**
+     * @return One past the highest territory ID with statistics
+     */
+    int capacity() {
+        return totalMillis.length;
+    }
+
+    /**
+     * Checks for changes since the last call, so unchanged stats are not saved again.
+     *
+     * @return true if the stats changed
+     */
+    public boolean consumeDirty() {
+        boolean wasDirty = dirty;
+        dirty = false;
+        return wasDirty;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < totalMillis.length) return;
+        int length = Math.max(id + 1, totalMillis.length * 2);
+        totalMillis = Arrays.copyOf(totalMillis, length);
+        visitCounts = Arrays.copyOf(visitCounts, length);
+        firstVisits = Arrays.copyOf(firstVisits, length);
+        lastVisits = Arrays.copyOf(lastVisits, length);
+    }
+}
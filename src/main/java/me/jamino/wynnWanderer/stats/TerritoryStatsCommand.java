@@ -0,0 +1,134 @@
+package me.jamino.wynnWanderer.stats;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import me.jamino.wynnWanderer.features.TerritoryIds;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.text.Text;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Shows {@link TerritoryStats} through the {@code /wynnwanderer stats} client command.
+ *
+ * <ul>
+ *     <li>{@code /wynnwanderer stats} lists the territories with the most time spent</li>
+ *     <li>{@code /wynnwanderer stats territory <name>} shows one territory's statistics</li>
+ *     <li>{@code /wynnwanderer stats reset} clears all statistics</li>
+ * </ul>
+ */
+public final class TerritoryStatsCommand {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.systemDefault());
+
+    private TerritoryStatsCommand() {
+    }
+
+    /**
+     * Registers the client command.
+     *
+     * @param stats Supplies the stats to show
+     */
+    public static void register(Supplier<TerritoryStats> stats) {
+        ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> registerCommand(dispatcher, stats));
+    }
+
+    /**
+     * Formats the territories with the most time spent, including the ongoing visit.
+     *
+     * @param stats The stats to format
+     * @return One line per territory, or a single line if nothing has been visited
+     */
+    public static List<Text> formatTop(TerritoryStats stats) {
+        stats.flush(System.nanoTime());
+        int[] ids = new int[TerritoryStats.TOP_SIZE];
+        int count = stats.topByTime(ids);
+        if (count == 0) return List.of(Text.translatable("wynn_wanderer.stats.empty"));
+
+        List<Text> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            lines.add(Text.translatable("wynn_wanderer.stats.top_entry", i + 1, TerritoryIds.name(id),
+                    formatDuration(stats.getTotalMillis(id)), stats.getVisitCount(id)));
+        }
+        return lines;
+    }
+
+    /**
+     * Formats one territory's statistics, including the ongoing visit.
+     *
+     * @param stats The stats to format
+     * @param id    The territory ID
+     * @return The formatted lines
+     */
+    public static List<Text> formatTerritory(TerritoryStats stats, int id) {
+        stats.flush(System.nanoTime());
+        if (stats.getVisitCount(id) == 0) {
+            return List.of(Text.translatable("wynn_wanderer.stats.not_visited", TerritoryIds.name(id)));
+        }
+        return List.of(
+                Text.literal(TerritoryIds.name(id)),
+                Text.translatable("wynn_wanderer.stats.time_spent", formatDuration(stats.getTotalMillis(id))),
+                Text.translatable("wynn_wanderer.stats.visits", stats.getVisitCount(id)),
+                Text.translatable("wynn_wanderer.stats.first_visit", DATE_FORMAT.format(Instant.ofEpochMilli(stats.getFirstVisit(id)))),
+                Text.translatable("wynn_wanderer.stats.last_visit", DATE_FORMAT.format(Instant.ofEpochMilli(stats.getLastVisit(id)))));
+    }
+
+    static String formatDuration(long millis) {
+        long minutes = millis / 60_000;
+        if (minutes == 0) return (millis / 1000) + "s";
+        if (minutes < 60) return minutes + "m";
+        return (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+
+    private static void registerCommand(CommandDispatcher<FabricClientCommandSource> dispatcher, Supplier<TerritoryStats> stats) {
+        dispatcher.register(ClientCommandManager.literal("wynnwanderer")
+                .then(ClientCommandManager.literal("stats")
+                        .executes(context -> {
+                            for (Text line : formatTop(stats.get())) {
+                                context.getSource().sendFeedback(line);
+                            }
+                            return 1;
+                        })
+                        .then(ClientCommandManager.literal("territory")
+                                .then(ClientCommandManager.argument("name", StringArgumentType.greedyString())
+                                        .executes(context -> {
+                                            String name = StringArgumentType.getString(context, "name");
+                                            int id = findTerritory(name);
+                                            if (id < 0) {
+                                                context.getSource().sendError(Text.translatable("wynn_wanderer.stats.unknown", name));
+                                                return 0;
+                                            }
+                                            for (Text line : formatTerritory(stats.get(), id)) {
+                                                context.getSource().sendFeedback(line);
+                                            }
+                                            return 1;
+                                        })))
+                        .then(ClientCommandManager.literal("reset").executes(context -> {
+                            stats.get().reset(System.currentTimeMillis(), System.nanoTime());
+                            context.getSource().sendFeedback(Text.translatable("wynn_wanderer.stats.reset"));
+                            return 1;
+                        }))));
+    }
+
+    /**
+     * Finds a territory by name, ignoring case if there is no exact match.
+     */
+    private static int findTerritory(String name) {
+        int id = TerritoryIds.find(name);
+        if (id >= 0) return id;
+
+        int count = TerritoryIds.count();
+        for (int i = 0; i < count; i++) {
+            if (name.equalsIgnoreCase(TerritoryIds.name(i))) return i;
+        }
+        return -1;
+    }
+}
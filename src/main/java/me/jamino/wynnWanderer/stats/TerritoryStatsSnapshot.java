@@ -0,0 +1,146 @@
+package me.jamino.wynnWanderer.stats;
+
+import me.jamino.wynnWanderer.diagnostics.ErrorReporter;
+import me.jamino.wynnWanderer.diagnostics.Feature;
+import me.jamino.wynnWanderer.features.TerritoryIds;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compact binary copy of {@link TerritoryStats}, persisted between sessions.
+ * Territory IDs only last for a session, so entries are stored by name.
+ *
+ * <p>Layout (big-endian): magic, version, count, then per territory the total millis, visit count,
+ * first and last visit and the UTF-8 name prefixed with its length.</p>
+ */
+public final class TerritoryStatsSnapshot {
+    private static final int MAGIC = 0x57575653; // "WWVS"
+    private static final int VERSION = 1;
+    private static final int ENTRY_SIZE = 8 + 4 + 8 + 8 + 2;
+    private static final long MAX_FILE_SIZE = 16L * 1024 * 1024;
+
+    private final byte[][] names;
+    private final long[] totals;
+    private final int[] visits;
+    private final long[] firstVisits;
+    private final long[] lastVisits;
+
+    private TerritoryStatsSnapshot(int count) {
+        names = new byte[count][];
+        totals = new long[count];
+        visits = new int[count];
+        firstVisits = new long[count];
+        lastVisits = new long[count];
+    }
+
+    /**
+     * Copies the visited territories' statistics, so they can be written off the client thread.
+     *
+     * @param stats The stats, flushed by the caller if the ongoing visit should be included
+     * @return The copy
+     */
+    public static TerritoryStatsSnapshot capture(TerritoryStats stats) {
+        int capacity = stats.capacity();
+        int count = 0;
+        for (int id = 0; id < capacity; id++) {
+            if (stats.getVisitCount(id) > 0) count++;
+        }
+
+        TerritoryStatsSnapshot snapshot = new TerritoryStatsSnapshot(count);
+        int i = 0;
+        for (int id = 0; id < capacity && i < count; id++) {
+            if (stats.getVisitCount(id) == 0) continue;
+            String name = TerritoryIds.name(id);
+            byte[] bytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+            snapshot.names[i] = bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes;
+            snapshot.totals[i] = stats.getTotalMillis(id);
+            snapshot.visits[i] = stats.getVisitCount(id);
+            snapshot.firstVisits[i] = stats.getFirstVisit(id);
+            snapshot.lastVisits[i] = stats.getLastVisit(id);
+            i++;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds the statistics stored in a snapshot file to the given stats.
+     *
+     * @param file  The snapshot file
+     * @param stats The stats to load into
+     * @return true if the file was read, false if it is missing, outdated or corrupt
+     */
+    public static boolean read(Path file, TerritoryStats stats) {
+        if (!Files.isRegularFile(file)) return false;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 12 || size > MAX_FILE_SIZE) return false;
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until full
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return false;
+
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / ENTRY_SIZE) return false;
+
+            for (int i = 0; i < count; i++) {
+                long total = buffer.getLong();
+                int visits = buffer.getInt();
+                long firstVisit = buffer.getLong();
+                long lastVisit = buffer.getLong();
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                if (name.length == 0) continue;
+                stats.add(TerritoryIds.intern(new String(name, StandardCharsets.UTF_8)),
+                        total, visits, firstVisit, lastVisit);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            ErrorReporter.report(Feature.STORAGE, "Error reading territory stats '" + file + "'", e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the snapshot, replacing any existing file atomically.
+     *
+     * @param file The snapshot file
+     * @throws IOException If the file could not be written
+     */
+    public void write(Path file) throws IOException {
+        int size = 12;
+        for (byte[] name : names) {
+            size += ENTRY_SIZE + name.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            buffer.putLong(totals[i]).putInt(visits[i]).putLong(firstVisits[i]).putLong(lastVisits[i]);
+            buffer.putShort((short) names[i].length).put(names[i]);
+        }
+        buffer.flip();
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,121 @@
+package me.jamino.wynnWanderer.stats;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of the territories with the most time spent, keyed by territory ID.
+ *
+ * <p>Relies on totals only ever growing: a territory outside the heap can only overtake the
+ * smallest entry through its own update, so each update is a sift of at most log(capacity)
+ * steps and the heap always holds the largest totals.</p>
+ */
+final class TopTerritoryHeap {
+    private final int capacity;
+    private final int[] ids;
+    private final long[] totals;
+    private int size = 0;
+    // Heap slot of each territory ID, -1 if it is not in the heap
+    private int[] slots = new int[64];
+
+    TopTerritoryHeap(int capacity) {
+        this.capacity = capacity;
+        this.ids = new int[capacity];
+        this.totals = new long[capacity];
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Records a territory's new total. Totals passed for an ID must never decrease.
+     *
+     * @param id    The territory ID
+     * @param total The territory's total time
+     */
+    void update(int id, long total) {
+        ensureCapacity(id);
+        int slot = slots[id];
+        if (slot >= 0) {
+            totals[slot] = total;
+            siftDown(slot);
+        } else if (size < capacity) {
+            slot = size++;
+            place(slot, id, total);
+            siftUp(slot);
+        } else if (total > totals[0]) {
+            slots[ids[0]] = -1;
+            place(0, id, total);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Copies the heap's territory IDs into an array, largest total first.
+     *
+     * @param out Array receiving the IDs
+     * @return The number of IDs written
+     */
+    int top(int[] out) {
+        // Insertion sort over the at most capacity heap slots, never the full data set
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = i;
+            while (j > 0 && totals[order[j - 1]] < totals[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        int count = Math.min(size, out.length);
+        for (int i = 0; i < count; i++) {
+            out[i] = ids[order[i]];
+        }
+        return count;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            slots[ids[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (totals[parent] <= totals[slot]) return;
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = slot * 2 + 1;
+            if (left >= size) return;
+            int smallest = left + 1 < size && totals[left + 1] < totals[left] ? left + 1 : left;
+            if (totals[slot] <= totals[smallest]) return;
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        long total = totals[a];
+        place(a, ids[b], totals[b]);
+        place(b, id, total);
+    }
+
+    private void place(int slot, int id, long total) {
+        ids[slot] = id;
+        totals[slot] = total;
+        slots[id] = slot;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < slots.length) return;
+        int oldLength = slots.length;
+        slots = Arrays.copyOf(slots, Math.max(id + 1, oldLength * 2));
+        Arrays.fill(slots, oldLength, slots.length, -1);
+    }
+}
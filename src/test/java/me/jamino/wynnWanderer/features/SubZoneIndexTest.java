@@ -0,0 +1,167 @@
+package me.jamino.wynnWanderer.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubZoneIndexTest {
+    @Test
+    void emptyIndexFindsNothing() {
+        SubZoneIndex index = new SubZoneIndex(List.of());
+        assertEquals(0, index.size());
+        assertEquals(-1, index.find(0, 0));
+    }
+
+    @Test
+    void deepestZoneWins() {
+        SubZone town = zone(null, "Town", 0, 0, 100, 100);
+        SubZone square = zone(town, "Square", 40, 40, 60, 60);
+        // A bigger sibling of the town covering the square, depth still wins
+        SubZone fields = zone(null, "Fields", -50, -50, 200, 200);
+        SubZoneIndex index = new SubZoneIndex(List.of(fields, square, town));
+
+        assertEquals(square, index.valueAt(index.find(50, 50)));
+        assertEquals(town, index.valueAt(index.find(10, 10)));
+        assertEquals(fields, index.valueAt(index.find(150, 150)));
+        assertEquals(-1, index.find(300, 0));
+    }
+
+    @Test
+    void smallerOverlappingSiblingWins() {
+        SubZone market = zone(null, "Market", 0, 0, 50, 50);
+        SubZone stall = zone(null, "Stall", 40, 40, 70, 70);
+        SubZoneIndex index = new SubZoneIndex(List.of(market, stall));
+
+        assertEquals(stall, index.valueAt(index.find(45, 45)));
+        assertEquals(market, index.valueAt(index.find(10, 10)));
+        assertEquals(stall, index.valueAt(index.find(65, 65)));
+
+        // Neither owns its bounds, part of each lies in the other
+        assertFalse(index.ownsBounds(index.find(10, 10)));
+        assertFalse(index.ownsBounds(index.find(65, 65)));
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        List<SubZone> zones = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            SubZone top = randomZone(random, null, -2000, 4000, 50, 600);
+            zones.add(top);
+            for (int j = random.nextInt(4); j > 0; j--) {
+                SubZone child = randomZone(random, top, top.minX(), top.maxX() - top.minX(), 5, 200);
+                zones.add(child);
+                if (random.nextBoolean()) {
+                    zones.add(randomZone(random, child, child.minX(), child.maxX() - child.minX(), 2, 50));
+                }
+            }
+        }
+        SubZoneIndex index = new SubZoneIndex(zones);
+        assertEquals(zones.size(), index.size());
+
+        for (int i = 0; i < 200_000; i++) {
+            double x = -2500 + random.nextDouble() * 5000;
+            double z = -2500 + random.nextDouble() * 5000;
+            int expected = bruteForce(zones, x, z);
+            int actual = index.find(x, z);
+            if (expected < 0) {
+                assertEquals(-1, actual, "at " + x + ", " + z);
+                continue;
+            }
+            // Zones of equal depth and area may tie, so compare the ranking instead of the zone
+            assertTrue(actual >= 0, "nothing found at " + x + ", " + z);
+            assertTrue(contains(zones.get(actual), x, z));
+            assertEquals(zones.get(expected).depth(), zones.get(actual).depth(), "depth at " + x + ", " + z);
+            assertEquals(area(zones.get(expected)), area(zones.get(actual)), "area at " + x + ", " + z);
+        }
+
+        // The detector skips lookups inside a zone that owns its bounds, which is only
+        // correct if every block in it resolves to that zone
+        for (int i = 0; i < index.size(); i++) {
+            if (!index.ownsBounds(i)) continue;
+            for (int x = index.minX(i); x < index.maxX(i); x++) {
+                for (int z = index.minZ(i); z < index.maxZ(i); z++) {
+                    assertEquals(i, index.find(x + 0.5, z + 0.5), zones.get(i) + " at " + x + ", " + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    void freeBoundsTouchNoZone() {
+        Random random = new Random(5);
+        List<SubZone> zones = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            SubZone top = randomZone(random, null, -500, 1000, 5, 120);
+            zones.add(top);
+            if (random.nextBoolean()) {
+                zones.add(randomZone(random, top, top.minX(), top.maxX() - top.minX(), 2, 40));
+            }
+        }
+        SubZoneIndex index = new SubZoneIndex(zones);
+        int[] bounds = new int[4];
+        int found = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            int blockX = -700 + random.nextInt(1400);
+            int blockZ = -700 + random.nextInt(1400);
+            bounds[0] = -800;
+            bounds[1] = -800;
+            bounds[2] = 800;
+            bounds[3] = 800;
+            boolean free = index.freeBounds(blockX, blockZ, bounds);
+            boolean touched = zones.stream().anyMatch(zone -> blockX >= zone.minX() && blockX <= zone.maxX()
+                    && blockZ >= zone.minZ() && blockZ <= zone.maxZ());
+            assertEquals(!touched, free, "at " + blockX + ", " + blockZ);
+            if (!free) continue;
+
+            found++;
+            assertTrue(bounds[0] <= blockX && blockX <= bounds[2] && bounds[1] <= blockZ && blockZ <= bounds[3]);
+            for (SubZone zone : zones) {
+                boolean overlaps = zone.minX() <= bounds[2] && zone.maxX() >= bounds[0]
+                        && zone.minZ() <= bounds[3] && zone.maxZ() >= bounds[1];
+                assertFalse(overlaps, zone + " overlaps " + bounds[0] + ", " + bounds[1] + " to " + bounds[2] + ", " + bounds[3]);
+            }
+        }
+        assertTrue(found > 0);
+    }
+
+    private static int bruteForce(List<SubZone> zones, double x, double z) {
+        int best = -1;
+        for (int i = 0; i < zones.size(); i++) {
+            SubZone zone = zones.get(i);
+            if (!contains(zone, x, z)) continue;
+            if (best < 0 || zone.depth() > zones.get(best).depth()
+                    || zone.depth() == zones.get(best).depth() && area(zone) < area(zones.get(best))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static boolean contains(SubZone zone, double x, double z) {
+        return x >= zone.minX() && x <= zone.maxX() && z >= zone.minZ() && z <= zone.maxZ();
+    }
+
+    private static long area(SubZone zone) {
+        return (long) (zone.maxX() - zone.minX() + 1) * (zone.maxZ() - zone.minZ() + 1);
+    }
+
+    private static SubZone randomZone(Random random, SubZone parent, int origin, int range, int minSize, int maxSize) {
+        int x = origin + random.nextInt(Math.max(1, range));
+        int z = (parent == null ? origin : parent.minZ()) + random.nextInt(Math.max(1, parent == null ? range : parent.maxZ() - parent.minZ()));
+        int width = minSize + random.nextInt(maxSize - minSize);
+        int depth = minSize + random.nextInt(maxSize - minSize);
+        return zone(parent, "zone" + random.nextInt(), x, z, x + width, z + depth);
+    }
+
+    private static SubZone zone(SubZone parent, String name, int x1, int z1, int x2, int z2) {
+        return new SubZone("Test Territory", parent, name, x1, z1, x2, z2, TerritoryStyle.UNSET_COLOR);
+    }
+}
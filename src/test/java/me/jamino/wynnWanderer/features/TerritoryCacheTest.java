@@ -0,0 +1,130 @@
+package me.jamino.wynnWanderer.features;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerritoryCacheTest {
+    @Test
+    void coolsDownForTheDefaultCooldown() {
+        TerritoryCache cache = new TerritoryCache(16);
+        cache.setDefaultCooldown(5);
+        cache.add(3);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.isCoolingDown(3), "tick " + i);
+            cache.tick();
+        }
+        assertFalse(cache.isCoolingDown(3));
+        assertFalse(cache.contains(3));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void showingAgainRestartsTheCooldown() {
+        TerritoryCache cache = new TerritoryCache(16);
+        cache.setDefaultCooldown(5);
+        cache.add(1);
+        for (int i = 0; i < 4; i++) cache.tick();
+        cache.add(1);
+        for (int i = 0; i < 4; i++) cache.tick();
+
+        assertTrue(cache.isCoolingDown(1));
+        assertEquals(1, cache.size());
+        cache.tick();
+        assertFalse(cache.contains(1));
+    }
+
+    @Test
+    void overridesReplaceTheDefaultCooldown() {
+        TerritoryCache cache = new TerritoryCache(16);
+        cache.setDefaultCooldown(5);
+        cache.setCooldownOverrides(new int[]{7}, new int[]{20});
+        assertEquals(20, cache.getCooldown(7));
+        assertEquals(5, cache.getCooldown(8));
+
+        cache.add(7);
+        cache.add(8);
+        for (int i = 0; i < 10; i++) cache.tick();
+        assertTrue(cache.isCoolingDown(7));
+        assertFalse(cache.isCoolingDown(8));
+        for (int i = 0; i < 10; i++) cache.tick();
+        assertFalse(cache.contains(7));
+
+        // Replacing the overrides drops the old ones
+        cache.setCooldownOverrides(new int[0], new int[0]);
+        assertEquals(5, cache.getCooldown(7));
+    }
+
+    @Test
+    void evictsTheOldestPastTheCacheSize() {
+        TerritoryCache cache = new TerritoryCache(3);
+        cache.setDefaultCooldown(1000);
+        for (int id = 0; id < 5; id++) {
+            cache.add(id);
+            cache.tick();
+        }
+        assertEquals(3, cache.size());
+        assertFalse(cache.contains(0));
+        assertFalse(cache.contains(1));
+        assertTrue(cache.contains(2));
+        assertTrue(cache.contains(4));
+
+        // Re-adding makes an entry the newest again
+        cache.add(2);
+        cache.add(5);
+        assertTrue(cache.contains(2));
+        assertFalse(cache.contains(3));
+
+        cache.setCacheSize(1);
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains(5));
+    }
+
+    @Test
+    void repeatedAddsKeepTheQueueConsistent() {
+        TerritoryCache cache = new TerritoryCache(4);
+        cache.setDefaultCooldown(50);
+        // Enough re-adds of a few IDs to grow and compact the queue many times over
+        for (int i = 0; i < 10_000; i++) {
+            cache.add(i % 6);
+            if (i % 3 == 0) cache.tick();
+            assertTrue(cache.size() <= 4);
+        }
+        // The last four adds were IDs 0 to 3
+        for (int id = 0; id < 4; id++) {
+            assertTrue(cache.contains(id), "id " + id);
+        }
+        assertFalse(cache.contains(4));
+        assertFalse(cache.contains(5));
+
+        for (int i = 0; i < 50; i++) cache.tick();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void zeroSizeCacheStoresNothing() {
+        TerritoryCache cache = new TerritoryCache(0);
+        cache.setDefaultCooldown(10);
+        cache.add(1);
+        assertFalse(cache.contains(1));
+        assertFalse(cache.isCoolingDown(1));
+        assertFalse(cache.contains(-1));
+    }
+
+    @Test
+    void clearEmptiesTheCache() {
+        TerritoryCache cache = new TerritoryCache(8);
+        cache.setDefaultCooldown(10);
+        cache.add(1);
+        cache.add(200);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertFalse(cache.contains(200));
+
+        cache.add(1);
+        assertTrue(cache.isCoolingDown(1));
+    }
+}
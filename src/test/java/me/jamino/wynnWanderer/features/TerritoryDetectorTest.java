@@ -0,0 +1,97 @@
+package me.jamino.wynnWanderer.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerritoryDetectorTest {
+    private final TerritoryArea territory = new TerritoryArea("Detector Test", 0, 0, 999, 999);
+    private final TerritoryIndex<TerritoryArea> index = new TerritoryIndex.Builder<TerritoryArea>()
+            .add(territory.minX(), territory.minZ(), territory.maxX(), territory.maxZ(), territory)
+            .build();
+
+    @Test
+    void fastPathCoversTheTerritory() {
+        TerritoryDetector detector = new TerritoryDetector();
+        lookup(detector, 500, 500, null);
+
+        assertEquals(territory, detector.getCurrentTerritory());
+        assertTrue(detector.isStillResolved(0, 0));
+        assertTrue(detector.isStillResolved(998, 998));
+        assertFalse(detector.isStillResolved(1000, 500));
+    }
+
+    @Test
+    void fastPathCoversTheAreaOutsideZones() {
+        SubZone town = zone(null, "Town", 100, 100, 199, 199);
+        SubZone square = zone(town, "Square", 140, 140, 160, 160);
+        SubZoneIndex zones = new SubZoneIndex(List.of(town, square));
+        TerritoryDetector detector = new TerritoryDetector();
+
+        // Far from the zones the whole stretch up to the territory's edge stays resolved
+        lookup(detector, 600, 600, zones);
+        assertEquals(null, detector.getCurrentZone());
+        assertTrue(detector.isStillResolved(601, 600));
+        assertTrue(detector.isStillResolved(998, 998));
+        assertTrue(detector.isStillResolved(300, 900));
+        assertFalse(detector.isStillResolved(150, 150));
+        assertFalse(detector.isStillResolved(1000, 600));
+
+        // Next to a zone the fast path stops at the zone's edge
+        lookup(detector, 90, 150, zones);
+        assertTrue(detector.isStillResolved(99, 150));
+        assertTrue(detector.isStillResolved(0, 150));
+        assertFalse(detector.isStillResolved(100, 150));
+
+        // Inside a zone with a nested zone every block may resolve differently
+        lookup(detector, 110, 110, zones);
+        assertEquals(town, detector.getCurrentZone());
+        assertFalse(detector.isStillResolved(111, 110));
+
+        // Inside a zone nothing else overlaps, its own bounds stay resolved
+        lookup(detector, 150, 150, zones);
+        assertEquals(square, detector.getCurrentZone());
+        assertTrue(detector.isStillResolved(141, 159));
+        assertFalse(detector.isStillResolved(161, 150));
+    }
+
+    @Test
+    void everyFreeBlockResolvesOutsideZones() {
+        SubZone west = zone(null, "West", 50, 0, 300, 400);
+        SubZone east = zone(null, "East", 250, 380, 700, 420);
+        SubZoneIndex zones = new SubZoneIndex(List.of(west, east));
+        TerritoryDetector detector = new TerritoryDetector();
+
+        for (int x = 0; x < 1000; x += 7) {
+            for (int z = 0; z < 1000; z += 7) {
+                lookup(detector, x, z, zones);
+                if (detector.getCurrentZone() != null) continue;
+                // Spot check the blocks around the sample that the fast path would skip
+                for (int dx = -30; dx <= 30; dx += 3) {
+                    for (int dz = -30; dz <= 30; dz += 3) {
+                        if (!detector.isStillResolved(x + dx, z + dz)) continue;
+                        assertEquals(territory, index.get(x + dx + 0.5, z + dz + 0.5));
+                        assertEquals(-1, zones.find(x + dx + 0.5, z + dz + 0.5), "at " + (x + dx) + ", " + (z + dz));
+                    }
+                }
+            }
+        }
+    }
+
+    private void lookup(TerritoryDetector detector, int blockX, int blockZ, SubZoneIndex zones) {
+        double x = blockX + 0.5;
+        double z = blockZ + 0.5;
+        PositionSample sample = new PositionSample(x, z, blockX, blockZ);
+        int position = index.find(x, z);
+        int zonePosition = zones == null ? -1 : zones.find(x, z);
+        detector.update(sample, index, position, zones, zonePosition);
+    }
+
+    private static SubZone zone(SubZone parent, String name, int x1, int z1, int x2, int z2) {
+        return new SubZone("Detector Test", parent, name, x1, z1, x2, z2, TerritoryStyle.UNSET_COLOR);
+    }
+}
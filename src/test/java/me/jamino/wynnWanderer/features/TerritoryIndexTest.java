@@ -0,0 +1,86 @@
+package me.jamino.wynnWanderer.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TerritoryIndexTest {
+    private record Rect(int minX, int minZ, int maxX, int maxZ, String name) {
+        boolean contains(double x, double z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        TerritoryIndex<String> index = TerritoryIndex.empty();
+        assertTrue(index.isEmpty());
+        assertEquals(-1, index.find(0, 0));
+        assertNull(index.get(0, 0));
+    }
+
+    @Test
+    void cornersMayBeGivenInAnyOrder() {
+        TerritoryIndex<String> index = new TerritoryIndex.Builder<String>()
+                .add(10, -5, -10, 5, "a")
+                .build();
+        assertEquals(-10, index.minX(0));
+        assertEquals(-5, index.minZ(0));
+        assertEquals(10, index.maxX(0));
+        assertEquals(5, index.maxZ(0));
+        assertEquals("a", index.get(-10, 5));
+        assertEquals("a", index.get(10, -5));
+        assertNull(index.get(10.01, 0));
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        List<Rect> rects = new ArrayList<>();
+        TerritoryIndex.Builder<String> builder = new TerritoryIndex.Builder<>();
+
+        // Territories don't overlap, so lay them out in grid cells with gaps between them
+        int cell = 300;
+        for (int cx = -8; cx < 8; cx++) {
+            for (int cz = -8; cz < 8; cz++) {
+                if (random.nextInt(4) == 0) continue;
+                int minX = cx * cell + random.nextInt(100);
+                int minZ = cz * cell + random.nextInt(100);
+                int maxX = minX + 1 + random.nextInt(cell - 100 - 1);
+                int maxZ = minZ + 1 + random.nextInt(cell - 100 - 1);
+                Rect rect = new Rect(minX, minZ, maxX, maxZ, cx + "," + cz);
+                rects.add(rect);
+                builder.add(maxX, maxZ, minX, minZ, rect.name());
+            }
+        }
+        TerritoryIndex<String> index = builder.build();
+        assertEquals(rects.size(), index.size());
+
+        for (int i = 0; i < 200_000; i++) {
+            double x = (random.nextDouble() - 0.5) * 20 * cell;
+            double z = (random.nextDouble() - 0.5) * 20 * cell;
+            assertEquals(linearScan(rects, x, z), index.get(x, z), "at " + x + ", " + z);
+        }
+
+        // Edges are inclusive
+        for (Rect rect : rects) {
+            assertEquals(rect.name(), index.get(rect.minX(), rect.minZ()));
+            assertEquals(rect.name(), index.get(rect.maxX(), rect.maxZ()));
+            assertEquals(linearScan(rects, rect.maxX() + 0.5, rect.maxZ()), index.get(rect.maxX() + 0.5, rect.maxZ()));
+            assertEquals(linearScan(rects, rect.minX(), rect.minZ() - 0.5), index.get(rect.minX(), rect.minZ() - 0.5));
+        }
+    }
+
+    private static String linearScan(List<Rect> rects, double x, double z) {
+        for (Rect rect : rects) {
+            if (rect.contains(x, z)) return rect.name();
+        }
+        return null;
+    }
+}
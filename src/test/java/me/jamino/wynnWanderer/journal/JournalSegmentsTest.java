@@ -0,0 +1,137 @@
+package me.jamino.wynnWanderer.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JournalSegmentsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsIntactRecordsOnReopen() throws IOException {
+        long size = writeRecords(3, 10);
+        JournalSegments segments = new JournalSegments(directory, 1 << 20, 4);
+        segments.open();
+        segments.close();
+        assertEquals(size, Files.size(segment(1)));
+    }
+
+    @Test
+    void truncatesAPartialRecord() throws IOException {
+        long size = writeRecords(3, 10);
+        ByteBuffer partial = record(99, 10);
+        partial.limit(partial.limit() - 3);
+        append(partial);
+
+        reopenAndAppend();
+        // The intact records survive and the new record follows them directly
+        assertEquals(size + record(0, 10).remaining(), Files.size(segment(1)));
+        assertEquals(4, countIntactRecords(segment(1)));
+    }
+
+    @Test
+    void truncatesACorruptChecksum() throws IOException {
+        long size = writeRecords(2, 20);
+        ByteBuffer corrupt = record(5, 20);
+        corrupt.put(corrupt.limit() - 1, (byte) (corrupt.get(corrupt.limit() - 1) ^ 1));
+        append(corrupt);
+        append(record(6, 20));
+
+        JournalSegments segments = new JournalSegments(directory, 1 << 20, 4);
+        segments.open();
+        segments.close();
+        // Everything from the first bad record on is dropped, even intact records after it
+        assertEquals(size, Files.size(segment(1)));
+    }
+
+    @Test
+    void truncatesGarbageLengths() throws IOException {
+        long size = writeRecords(2, 8);
+        append(ByteBuffer.allocate(8).putInt(JournalSegments.MAX_PAYLOAD + 1).putInt(0).flip());
+
+        JournalSegments segments = new JournalSegments(directory, 1 << 20, 4);
+        segments.open();
+        segments.close();
+        assertEquals(size, Files.size(segment(1)));
+    }
+
+    @Test
+    void rotatesAndDropsOldSegments() throws IOException {
+        int recordSize = record(0, 100).remaining();
+        JournalSegments segments = new JournalSegments(directory, 3L * recordSize, 2);
+        segments.open();
+        for (int i = 0; i < 10; i++) {
+            segments.write(record(i, 100));
+        }
+        segments.close();
+
+        // Three records per segment, only the newest two segments are kept
+        assertEquals(List.of(3, 4), segments.listSegments());
+        assertEquals(3, countIntactRecords(segment(3)));
+        assertEquals(1, countIntactRecords(segment(4)));
+    }
+
+    private long writeRecords(int count, int payloadSize) throws IOException {
+        JournalSegments segments = new JournalSegments(directory, 1 << 20, 4);
+        segments.open();
+        for (int i = 0; i < count; i++) {
+            segments.write(record(i, payloadSize));
+        }
+        segments.close();
+        return Files.size(segment(1));
+    }
+
+    private void reopenAndAppend() throws IOException {
+        JournalSegments segments = new JournalSegments(directory, 1 << 20, 4);
+        segments.open();
+        segments.write(record(0, 10));
+        segments.close();
+    }
+
+    private void append(ByteBuffer bytes) throws IOException {
+        Files.write(segment(1), Arrays.copyOfRange(bytes.array(), bytes.position(), bytes.limit()), StandardOpenOption.APPEND);
+    }
+
+    private Path segment(int number) {
+        return directory.resolve(String.format("visits-%06d.wwj", number));
+    }
+
+    private static ByteBuffer record(int seed, int payloadSize) {
+        ByteBuffer record = ByteBuffer.allocate(4 + payloadSize + 4);
+        record.putInt(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            record.put((byte) (seed * 31 + i));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, payloadSize);
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    private static int countIntactRecords(Path file) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        int count = 0;
+        while (bytes.remaining() >= 4) {
+            int length = bytes.getInt();
+            if (length <= 0 || bytes.remaining() < length + 4) break;
+            crc.reset();
+            crc.update(bytes.array(), bytes.position(), length);
+            bytes.position(bytes.position() + length);
+            if ((int) crc.getValue() != bytes.getInt()) break;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package me.jamino.wynnWanderer.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisitQueueTest {
+    @Test
+    void pollsInOfferOrder() {
+        VisitQueue queue = new VisitQueue(8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(1000 + i, (byte) (i % 2), i, i * 10L));
+        }
+        assertEquals(5, queue.size());
+
+        for (int i = 0; i < 5; i++) {
+            int expected = i;
+            assertTrue(queue.poll((timestamp, type, territoryId, dwellMillis) -> {
+                assertEquals(1000 + expected, timestamp);
+                assertEquals(expected % 2, type);
+                assertEquals(expected, territoryId);
+                assertEquals(expected * 10L, dwellMillis);
+            }));
+        }
+        assertEquals(0, queue.size());
+        assertFalse(queue.poll((timestamp, type, territoryId, dwellMillis) -> {
+            throw new AssertionError("polled an empty queue");
+        }));
+    }
+
+    @Test
+    void dropsOffersWhenFull() {
+        // Rounded up to 8
+        VisitQueue queue = new VisitQueue(5);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(queue.offer(i, (byte) 0, i, 0));
+        }
+        assertFalse(queue.offer(8, (byte) 0, 8, 0));
+        assertEquals(8, queue.size());
+
+        // Polling frees a slot, the dropped record stays dropped
+        queue.poll((timestamp, type, territoryId, dwellMillis) -> assertEquals(0, territoryId));
+        assertTrue(queue.offer(9, (byte) 0, 9, 0));
+        AtomicLong last = new AtomicLong();
+        while (queue.poll((timestamp, type, territoryId, dwellMillis) -> last.set(territoryId))) {
+            // Drain
+        }
+        assertEquals(9, last.get());
+    }
+
+    @Test
+    void wrapsAroundTheRing() {
+        VisitQueue queue = new VisitQueue(4);
+        AtomicLong next = new AtomicLong();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(i, (byte) 0, i, 0));
+            if (i % 3 != 0) {
+                assertTrue(queue.poll((timestamp, type, territoryId, dwellMillis) ->
+                        assertEquals(next.getAndIncrement(), timestamp)));
+            }
+            if (queue.size() == 4) {
+                while (queue.poll((timestamp, type, territoryId, dwellMillis) ->
+                        assertEquals(next.getAndIncrement(), timestamp))) {
+                    // Drain
+                }
+            }
+        }
+    }
+
+    @Test
+    void handsRecordsAcrossThreadsInOrder() throws InterruptedException {
+        VisitQueue queue = new VisitQueue(64);
+        int count = 200_000;
+        AtomicLong received = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            while (received.get() < count) {
+                queue.poll((timestamp, type, territoryId, dwellMillis) -> {
+                    long expected = received.getAndIncrement();
+                    if (timestamp != expected || territoryId != (int) expected || dwellMillis != -expected) {
+                        throw new AssertionError("record " + expected + " arrived as " + timestamp);
+                    }
+                });
+            }
+        });
+        consumer.start();
+
+        for (long i = 0; i < count; i++) {
+            while (!queue.offer(i, (byte) 1, (int) i, -i)) {
+                Thread.onSpinWait();
+            }
+        }
+        consumer.join(10_000);
+        assertEquals(count, received.get());
+    }
+}
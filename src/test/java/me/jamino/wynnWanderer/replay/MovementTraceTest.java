@@ -0,0 +1,124 @@
+package me.jamino.wynnWanderer.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovementTraceTest {
+    @TempDir
+    Path directory;
+
+    // One recorded tick, null coordinates for a gap
+    private record Tick(Double x, Double z) {
+    }
+
+    @Test
+    void roundTripsMovementIdleRunsAndGaps() throws IOException {
+        Random random = new Random(7);
+        List<Tick> ticks = new ArrayList<>();
+        double x = -1234.5;
+        double z = 987.25;
+        for (int i = 0; i < 20_000; i++) {
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                // Gap runs, the next position is written in full
+                int length = 1 + random.nextInt(30);
+                for (int j = 0; j < length; j++) ticks.add(new Tick(null, null));
+                continue;
+            } else if (kind < 6) {
+                // Idle runs
+                int length = 1 + random.nextInt(300);
+                for (int j = 0; j < length; j++) ticks.add(new Tick(x, z));
+                continue;
+            } else if (kind == 6) {
+                // Teleports: deltas that need the longest varints
+                x = (random.nextDouble() - 0.5) * 60_000_000;
+                z = (random.nextDouble() - 0.5) * 60_000_000;
+            } else {
+                x += (random.nextDouble() - 0.5) * 2;
+                z += (random.nextDouble() - 0.5) * 2;
+            }
+            ticks.add(new Tick(x, z));
+        }
+
+        Path file = directory.resolve("trace.wwt");
+        try (MovementTrace.Writer writer = new MovementTrace.Writer(file, 123456789L)) {
+            for (Tick tick : ticks) {
+                if (tick.x() == null) {
+                    writer.gap();
+                } else {
+                    writer.position(tick.x(), tick.z());
+                }
+            }
+        }
+
+        MovementTrace.Reader reader = new MovementTrace.Reader(file);
+        assertEquals(123456789L, reader.getStartEpochMillis());
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick tick = ticks.get(i);
+            assertTrue(reader.next(), "tick " + i);
+            assertEquals(tick.x() != null, reader.isOnWorld(), "tick " + i);
+            if (tick.x() != null) {
+                assertEquals(quantize(tick.x()), reader.getX(), "tick " + i);
+                assertEquals(quantize(tick.z()), reader.getZ(), "tick " + i);
+            }
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void idleTicksCostNoRecords() throws IOException {
+        Path file = directory.resolve("idle.wwt");
+        try (MovementTrace.Writer writer = new MovementTrace.Writer(file, 0)) {
+            for (int i = 0; i < 100_000; i++) {
+                writer.position(10.5, -3.25);
+            }
+        }
+        // Header, one absolute record and one idle run
+        assertTrue(Files.size(file) < 16 + 9 + 5);
+
+        MovementTrace.Reader reader = new MovementTrace.Reader(file);
+        int count = 0;
+        while (reader.next()) {
+            assertEquals(10.5, reader.getX());
+            assertEquals(-3.25, reader.getZ());
+            count++;
+        }
+        assertEquals(100_000, count);
+    }
+
+    @Test
+    void rejectsTruncatedTraces() throws IOException {
+        Path file = directory.resolve("truncated.wwt");
+        try (MovementTrace.Writer writer = new MovementTrace.Writer(file, 0)) {
+            writer.position(0, 0);
+            writer.position(100_000, -100_000);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        MovementTrace.Reader reader = new MovementTrace.Reader(file);
+        assertTrue(reader.next());
+        assertThrows(EOFException.class, reader::next);
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> new MovementTrace.Reader(file));
+    }
+
+    private static double quantize(double coordinate) {
+        return Math.round(coordinate * MovementTrace.UNITS_PER_BLOCK) / MovementTrace.UNITS_PER_BLOCK;
+    }
+}
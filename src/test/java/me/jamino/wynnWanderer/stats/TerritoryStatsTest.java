@@ -0,0 +1,71 @@
+package me.jamino.wynnWanderer.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TerritoryStatsTest {
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void timesVisitsAcrossTransitions() {
+        TerritoryStats stats = new TerritoryStats();
+        stats.enter(1, 1000, 0);
+        stats.enter(2, 1500, 500 * MILLI);
+        stats.enter(1, 1800, 800 * MILLI);
+        stats.leave(1000 * MILLI);
+
+        assertEquals(700, stats.getTotalMillis(1));
+        assertEquals(300, stats.getTotalMillis(2));
+        assertEquals(2, stats.getVisitCount(1));
+        assertEquals(1000, stats.getFirstVisit(1));
+        assertEquals(1800, stats.getLastVisit(1));
+        assertEquals(-1, stats.getCurrentTerritory());
+    }
+
+    @Test
+    void pausedTimeIsNotCounted() {
+        TerritoryStats stats = new TerritoryStats();
+        stats.enter(3, 1000, 0);
+        stats.pause(100 * MILLI);
+        stats.resume(900 * MILLI);
+        stats.flush(1000 * MILLI);
+
+        assertEquals(200, stats.getTotalMillis(3));
+    }
+
+    @Test
+    void resetDuringAVisitStartsItAgain() {
+        TerritoryStats stats = new TerritoryStats();
+        stats.enter(4, 1000, 0);
+        stats.enter(5, 2000, 100 * MILLI);
+        stats.reset(5000, 300 * MILLI);
+
+        assertEquals(0, stats.getVisitCount(4));
+        assertEquals(0, stats.getTotalMillis(4));
+        assertEquals(0, stats.getTotalMillis(5));
+        // The ongoing visit counts as a fresh one, so it is listed and saved
+        assertEquals(1, stats.getVisitCount(5));
+        assertEquals(5000, stats.getFirstVisit(5));
+        assertEquals(5000, stats.getLastVisit(5));
+
+        stats.flush(700 * MILLI);
+        assertEquals(400, stats.getTotalMillis(5));
+        int[] top = new int[TerritoryStats.TOP_SIZE];
+        assertEquals(1, stats.topByTime(top));
+        assertEquals(5, top[0]);
+    }
+
+    @Test
+    void resetOutsideAVisitClearsEverything() {
+        TerritoryStats stats = new TerritoryStats();
+        stats.enter(6, 1000, 0);
+        stats.leave(100 * MILLI);
+        stats.reset(5000, 200 * MILLI);
+        stats.flush(300 * MILLI);
+
+        assertEquals(0, stats.getVisitCount(6));
+        assertEquals(0, stats.getTotalMillis(6));
+        assertEquals(0, stats.topByTime(new int[TerritoryStats.TOP_SIZE]));
+    }
+}
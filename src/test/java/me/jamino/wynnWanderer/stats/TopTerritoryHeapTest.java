@@ -0,0 +1,85 @@
+package me.jamino.wynnWanderer.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopTerritoryHeapTest {
+    @Test
+    void matchesSortedTotals() {
+        Random random = new Random(3);
+        int territories = 500;
+        int capacity = 10;
+        long[] totals = new long[territories];
+        TopTerritoryHeap heap = new TopTerritoryHeap(capacity);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Skew the updates so the leaders change over time
+            int id = random.nextInt(1 + random.nextInt(territories));
+            totals[id] += 1 + random.nextInt(1000);
+            heap.update(id, totals[id]);
+
+            if (i % 500 == 0) {
+                assertTopTotals(heap, totals, capacity);
+            }
+        }
+        assertTopTotals(heap, totals, capacity);
+    }
+
+    @Test
+    void returnsFewerThanCapacity() {
+        TopTerritoryHeap heap = new TopTerritoryHeap(5);
+        heap.update(100, 10);
+        heap.update(3, 30);
+        heap.update(7, 20);
+
+        int[] out = new int[5];
+        assertEquals(3, heap.top(out));
+        assertArrayEquals(new int[]{3, 7, 100}, Arrays.copyOf(out, 3));
+
+        // The output array limits the count as well
+        int[] small = new int[2];
+        assertEquals(2, heap.top(small));
+        assertArrayEquals(new int[]{3, 7}, small);
+    }
+
+    @Test
+    void clearEmptiesTheHeap() {
+        TopTerritoryHeap heap = new TopTerritoryHeap(2);
+        heap.update(1, 5);
+        heap.update(2, 6);
+        heap.clear();
+        assertEquals(0, heap.top(new int[2]));
+
+        heap.update(2, 1);
+        heap.update(3, 2);
+        heap.update(1, 3);
+        int[] out = new int[2];
+        assertEquals(2, heap.top(out));
+        assertArrayEquals(new int[]{1, 3}, out);
+    }
+
+    private static void assertTopTotals(TopTerritoryHeap heap, long[] totals, int capacity) {
+        int[] out = new int[capacity];
+        int count = heap.top(out);
+        long[] expected = IntStream.range(0, totals.length)
+                .filter(id -> totals[id] > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer id) -> totals[id]).reversed())
+                .limit(capacity)
+                .mapToLong(id -> totals[id])
+                .toArray();
+
+        // Compare totals rather than IDs, territories with equal totals may come in either order
+        assertEquals(expected.length, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], totals[out[i]], "rank " + i);
+        }
+    }
+}